@@ -2,8 +2,10 @@ package com.example.keywords;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 
 @SpringBootApplication
+@ConfigurationPropertiesScan
 public class KeywordApplication {
 	public static void main(String[] args) {
 		SpringApplication.run(KeywordApplication.class, args);
@@ -0,0 +1,103 @@
+package com.example.keywords.config;
+
+import com.example.keywords.model.Keyword;
+import com.example.keywords.services.KeywordResponseCache;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.ConfigurationBuilder;
+import org.ehcache.config.builders.ExpiryPolicyBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.config.units.EntryUnit;
+import org.ehcache.config.units.MemoryUnit;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.UUID;
+
+/**
+ * The one cache in front of the database: the Hibernate second-level cache of {@link Keyword}
+ * entities, which serves lookups by id without SQL, and of their ids by word, which does the same
+ * for lookups and duplicate checks by word. Keyword lists and words are not cached here;
+ * the keyword snapshot already holds them for masking and is rebuilt from one query per change.
+ * The same manager holds the serialized single-keyword bodies of {@link KeywordResponseCache},
+ * so they get the same bounds and meters.
+ *
+ * <p>Regions are created here from {@code keywords.cache.*}, with a bounded heap tier, an optional
+ * off-heap tier and a time to live, and Hibernate fails on startup if it asks for one that is not,
+ * so no cache grows unbounded with defaults. Each region reports the usual {@code cache.*} meters.
+ */
+@Configuration
+public class HibernateCacheConfig {
+
+    public static final String KEYWORD_RESPONSE_REGION = "keywords.response";
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(KeywordProperties properties) {
+        ConfigurationBuilder configuration = ConfigurationBuilder.newConfigurationBuilder()
+                .withCache(Keyword.class.getName(), regionConfiguration(properties.getCache().getKeyword()))
+                .withCache(Keyword.class.getName() + "##NaturalId",
+                        regionConfiguration(properties.getCache().getKeywordNaturalId()))
+                .withCache(KEYWORD_RESPONSE_REGION, regionConfiguration(Long.class, KeywordResponseCache.Body.class,
+                        properties.getCache().getKeywordResponse()));
+        EhcacheCachingProvider provider = (EhcacheCachingProvider) Caching.getCachingProvider(
+                EhcacheCachingProvider.class.getName());
+        // A URI of its own, so that several application contexts in one JVM do not share regions
+        URI uri = URI.create("urn:keywords:hibernate:" + UUID.randomUUID());
+        CacheManager cacheManager = provider.getCacheManager(uri, configuration.build());
+        for (String region : cacheManager.getCacheNames()) {
+            cacheManager.enableStatistics(region, true);
+        }
+        return cacheManager;
+    }
+
+    @Bean
+    public Cache<Long, KeywordResponseCache.Body> keywordResponseCache(CacheManager hibernateCacheManager) {
+        return hibernateCacheManager.getCache(KEYWORD_RESPONSE_REGION, Long.class, KeywordResponseCache.Body.class);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheCustomizer(CacheManager hibernateCacheManager) {
+        return hibernateProperties -> {
+            hibernateProperties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            hibernateProperties.putIfAbsent(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    @Bean
+    public MeterBinder hibernateCacheMetrics(CacheManager hibernateCacheManager) {
+        return registry -> {
+            for (String region : hibernateCacheManager.getCacheNames()) {
+                // Response bodies are not Hibernate data, so they are told apart from its regions
+                String owner = KEYWORD_RESPONSE_REGION.equals(region) ? "responses" : "hibernate";
+                JCacheMetrics.monitor(registry, hibernateCacheManager.getCache(region), Tags.of("cacheManager", owner));
+            }
+        };
+    }
+
+    private static CacheConfigurationBuilder<Object, Object> regionConfiguration(KeywordProperties.Region region) {
+        return regionConfiguration(Object.class, Object.class, region);
+    }
+
+    private static <K, V> CacheConfigurationBuilder<K, V> regionConfiguration(Class<K> keyType, Class<V> valueType,
+                                                                            KeywordProperties.Region region) {
+        ResourcePoolsBuilder pools = ResourcePoolsBuilder.newResourcePoolsBuilder()
+                .heap(region.getHeapEntries(), EntryUnit.ENTRIES);
+        if (region.getOffHeap().toBytes() > 0) {
+            // Hibernate cache keys and entries and response bodies are Serializable, which off-heap storage requires
+            pools = pools.offheap(region.getOffHeap().toBytes(), MemoryUnit.B);
+        }
+        return CacheConfigurationBuilder.newCacheConfigurationBuilder(keyType, valueType, pools)
+                .withExpiry(region.getTimeToLive().isZero()
+                        ? ExpiryPolicyBuilder.noExpiration()
+                        : ExpiryPolicyBuilder.timeToLiveExpiration(region.getTimeToLive()));
+    }
+}
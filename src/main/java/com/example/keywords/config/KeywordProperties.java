@@ -0,0 +1,120 @@
+package com.example.keywords.config;
+
+import com.example.keywords.matcher.MatcherType;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "keywords")
+public class KeywordProperties {
+
+    private final Matcher matcher = new Matcher();
+    private final Snapshot snapshot = new Snapshot();
+    private final Image image = new Image();
+    private final Warmup warmup = new Warmup();
+    private final Prefilter prefilter = new Prefilter();
+    private final TokenFilter tokenFilter = new TokenFilter();
+    private final Fuzzy fuzzy = new Fuzzy();
+    private final Statistics statistics = new Statistics();
+    private final Cache cache = new Cache();
+    private final KeywordList keywordList = new KeywordList();
+
+    @Data
+    public static class Matcher {
+        // Representation of the compiled keyword trie held in memory
+        private MatcherType type = MatcherType.COMPACT;
+        // Writes that would compile the keyword patterns into more automaton states are refused; at most 4194304
+        private int maxPatternStates = 1 << 22;
+    }
+
+    @Data
+    public static class Snapshot {
+        // Build or map the snapshot when the application starts instead of on the first mask call
+        private boolean loadOnStartup = true;
+        // How often to compare the snapshot with the database version; zero disables polling
+        private Duration refreshInterval = Duration.ofSeconds(30);
+        // Consecutive failed database reads that open the circuit, and how long it then stays open
+        private int failureThreshold = 3;
+        private Duration openDuration = Duration.ofSeconds(30);
+    }
+
+    @Data
+    public static class Image {
+        // Persist the compiled COMPACT matcher and memory-map it on startup when it is still current
+        private boolean enabled = false;
+        private Path path = Path.of("data", "keyword-matcher.img");
+        // Checking the payload CRC reads the whole file once and so defeats lazy page-in
+        private boolean verifyPayload = true;
+    }
+
+    @Data
+    public static class Warmup {
+        // Mask synthetic text built from the keyword snapshot before readiness reports UP
+        private boolean enabled = false;
+        private int iterations = 10_000;
+        private Duration maxDuration = Duration.ofSeconds(10);
+        // Lengths of the generated inputs, capped at the masking input limit
+        private List<Integer> inputSizes = List.of(64, 512, 4096);
+        private int sampleKeywords = 200;
+    }
+
+    @Data
+    public static class Prefilter {
+        // Skip regions of raw UTF-8 input where no keyword can start before running the matcher
+        private boolean enabled = false;
+        // Use the Vector API when the JVM runs with --add-modules jdk.incubator.vector
+        private boolean vectorized = true;
+    }
+
+    @Data
+    public static class TokenFilter {
+        // Return short input untouched when a Bloom filter over keyword first tokens rules out every token
+        private boolean enabled = true;
+    }
+
+    @Data
+    public static class Fuzzy {
+        // Also mask keywords disguised with look-alike digits, separators or doubled letters
+        private boolean enabled = false;
+        // Time one request may spend on the disguised-keyword pass; exact matches are masked regardless
+        private Duration budget = Duration.ofMillis(5);
+    }
+
+    @Data
+    public static class Statistics {
+        // Count matches per keyword and add them to the keyword_statistics table
+        private boolean enabled = false;
+        private Duration flushInterval = Duration.ofSeconds(60);
+    }
+
+    @Data
+    public static class Cache {
+        // Hibernate second-level cache of keyword entities, the only database cache
+        private final Region keyword = new Region();
+        // Word to id, consulted before the entity region on lookups by word
+        private final Region keywordNaturalId = new Region();
+        // Serialized GET /api/keywords/{id} bodies, least recently used evicted first
+        private final Region keywordResponse = new Region();
+    }
+
+    @Data
+    public static class Region {
+        // Entries kept on the heap; with an off-heap tier the least recently used move there
+        private long heapEntries = 10_000;
+        // Serialized entries kept outside the Java heap, zero for none; counts against -XX:MaxDirectMemorySize
+        private DataSize offHeap = DataSize.ofBytes(0);
+        // Bounds how long writes on other instances stay unseen here; zero keeps entries until evicted
+        private Duration timeToLive = Duration.ofMinutes(5);
+    }
+
+    @Data
+    public static class KeywordList {
+        // Smallest serialized list also kept gzipped for clients that accept it; below this gzip saves little
+        private DataSize gzipMinSize = DataSize.ofKilobytes(2);
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.keywords.config;
+
+import com.example.keywords.health.KeywordSnapshotHealthIndicator;
+import com.example.keywords.health.KeywordSnapshotMetrics;
+import com.example.keywords.services.KeywordSnapshotService;
+import com.example.keywords.services.MaskWarmupRunner;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Beans created at startup even with {@code spring.main.lazy-initialization}, as the startup profile
+ * sets it: readiness depends on the snapshot, its health and metrics, and the warm-up, so a failure
+ * in any of them has to stop the boot rather than surface on the first request.
+ */
+@Configuration
+public class LazyInitializationConfig {
+
+    @Bean
+    public static LazyInitializationExcludeFilter readinessBeansExcludeFilter() {
+        return LazyInitializationExcludeFilter.forBeanTypes(KeywordSnapshotService.class,
+                KeywordSnapshotHealthIndicator.class, KeywordSnapshotMetrics.class, MaskWarmupRunner.class);
+    }
+}
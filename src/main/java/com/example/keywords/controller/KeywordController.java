@@ -1,12 +1,19 @@
 package com.example.keywords.controller;
 
+import com.example.keywords.dto.DetectResponseDTO;
 import com.example.keywords.dto.ErrorResponse;
 import com.example.keywords.dto.KeywordDTO;
 import com.example.keywords.dto.MaskRequestDTO;
+import com.example.keywords.exception.PayloadTooLargeException;
+import com.example.keywords.exception.PreconditionFailedException;
+import com.example.keywords.exception.ValidationException;
+import com.example.keywords.matcher.KeywordExport;
+import com.example.keywords.services.KeywordResponseCache;
 import com.example.keywords.services.KeywordService;
 import com.example.keywords.services.StringMaskService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -15,10 +22,16 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 @Slf4j
@@ -28,8 +41,11 @@ import java.util.List;
 @Tag(name = "Keyword Management", description = "APIs for managing and masking keywords")
 public class KeywordController {
 
+    private static final String TEXT_PLAIN_UTF8 = "text/plain;charset=UTF-8";
+
     private final KeywordService keywordService;
     private final StringMaskService stringMaskService;
+    private final KeywordResponseCache keywordResponseCache;
 
     @PostMapping
     @Operation(summary = "Create a new keyword")
@@ -57,36 +73,92 @@ public class KeywordController {
     @GetMapping("/{id}")
     @Operation(summary = "Get keyword by ID")
     @ApiResponses({
-            @ApiResponse(responseCode = "200", description = "Keyword found",
+            @ApiResponse(responseCode = "200", description = "Keyword found, with its version as ETag",
                     content = @Content(schema = @Schema(implementation = KeywordDTO.class))),
+            @ApiResponse(responseCode = "304", description = "Keyword unchanged since the ETag in If-None-Match"),
             @ApiResponse(responseCode = "404", description = "Keyword not found",
                     content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
             @ApiResponse(responseCode = "400", description = "Invalid ID format",
                     content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
     })
-    public ResponseEntity<KeywordDTO> getKeywordById(
+    public ResponseEntity<byte[]> getKeywordById(
             @Parameter(description = "Keyword ID", required = true, example = "1")
             @PathVariable Long id) {
 
         log.debug("Fetching keyword with ID: {}", id);
-        KeywordDTO keyword = keywordService.getKeywordById(id);
-        log.debug("Keyword found: {}", keyword.getWord());
+        KeywordResponseCache.Body body = keywordResponseCache.getKeyword(id);
 
-        return ResponseEntity.ok(keyword);
+        // Spring answers If-None-Match with 304 and no body when the ETag still matches
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag("\"" + body.version() + "\"")
+                .body(body.bytes());
+    }
+
+    @GetMapping("/by-word/{word}")
+    @Operation(summary = "Get keyword by word", description = "Case and whitespace are normalized as on create")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Keyword found",
+                    content = @Content(schema = @Schema(implementation = KeywordDTO.class))),
+            @ApiResponse(responseCode = "404", description = "Keyword not found",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public ResponseEntity<KeywordDTO> getKeywordByWord(
+            @Parameter(description = "Keyword word, phrase or pattern", required = true, example = "SELECT")
+            @PathVariable String word) {
+
+        log.debug("Fetching keyword with word: {}", word);
+        KeywordDTO keyword = keywordService.getKeywordByWord(word);
+        return ResponseEntity.ok().eTag(eTag(keyword)).body(keyword);
     }
 
     @GetMapping
-    @Operation(summary = "Get all keywords")
+    @Operation(summary = "Get all keywords",
+            description = "The ETag follows the keyword-set version, so polling clients get 304 until the set changes")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Keywords retrieved successfully",
-                    content = @Content(schema = @Schema(implementation = KeywordDTO.class)))
+                    content = @Content(array = @ArraySchema(schema = @Schema(implementation = KeywordDTO.class)))),
+            @ApiResponse(responseCode = "304", description = "Keyword set unchanged since the ETag in If-None-Match")
     })
-    public ResponseEntity<List<KeywordDTO>> getAllKeywords() {
+    public ResponseEntity<byte[]> getAllKeywords(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
         log.debug("Fetching all keywords");
-        List<KeywordDTO> keywords = keywordService.getAllKeywords();
-        log.debug("Found {} keywords", keywords.size());
+        KeywordResponseCache.Body body = keywordResponseCache.getKeywordList();
+        String version = Long.toHexString(body.version());
+
+        // The gzipped body is a different representation, so it gets its own strong ETag
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (body.gzip() != null && acceptsGzip(acceptEncoding)) {
+            return response.eTag("\"" + version + "-gzip\"")
+                    .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                    .body(body.gzip());
+        }
+        return response.eTag("\"" + version + "\"").body(body.bytes());
+    }
+
+    @GetMapping("/export")
+    @Operation(summary = "Export the keyword set in binary form",
+            description = "Sorted, front-coded UTF-8 keywords in the versioned format read by KeywordExport, "
+                    + "optionally with the compiled matcher image; the ETag follows the keyword-set version")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Keyword set exported",
+                    content = @Content(mediaType = KeywordExport.MEDIA_TYPE)),
+            @ApiResponse(responseCode = "304", description = "Keyword set unchanged since the ETag in If-None-Match")
+    })
+    public ResponseEntity<byte[]> exportKeywords(
+            @Parameter(description = "Include the compiled matcher image so the client need not compile")
+            @RequestParam(defaultValue = "false") boolean matcher) {
+
+        log.debug("Exporting keywords{}", matcher ? " with matcher image" : "");
+        KeywordResponseCache.Body body = keywordResponseCache.getExport(matcher);
+        String version = Long.toHexString(body.version());
 
-        return ResponseEntity.ok(keywords);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(KeywordExport.MEDIA_TYPE))
+                .eTag("\"" + version + (matcher ? "-matcher" : "") + "\"")
+                .body(body.bytes());
     }
 
     @PutMapping("/{id}")
@@ -96,20 +168,35 @@ public class KeywordController {
                     content = @Content(schema = @Schema(implementation = KeywordDTO.class))),
             @ApiResponse(responseCode = "404", description = "Keyword not found",
                     content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
-            @ApiResponse(responseCode = "409", description = "Keyword already exists",
+            @ApiResponse(responseCode = "409", description = "Keyword already exists, or was updated concurrently",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "412", description = "Keyword changed since the ETag in If-Match",
                     content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
     })
     public ResponseEntity<KeywordDTO> updateKeyword(
             @Parameter(description = "Keyword ID", required = true)
             @PathVariable Long id,
             @Parameter(description = "Updated keyword data", required = true)
-            @Valid @RequestBody KeywordDTO keywordDTO) {
+            @Valid @RequestBody KeywordDTO keywordDTO,
+            @Parameter(description = "ETag of the version the change is based on")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            WebRequest request) {
 
         log.info("Updating keyword with ID: {}", id);
-        KeywordDTO updated = keywordService.updateKeyword(id, keywordDTO);
+        Long expectedVersion = null;
+        if (ifMatch != null) {
+            // Spring evaluates If-Match (lists, *) against the current ETag; the version check in the
+            // update then catches changes made after this read
+            KeywordDTO current = keywordService.getKeywordById(id);
+            if (request.checkNotModified(eTag(current))) {
+                throw new PreconditionFailedException("Keyword", id);
+            }
+            expectedVersion = current.getVersion();
+        }
+        KeywordDTO updated = keywordService.updateKeyword(id, keywordDTO, expectedVersion);
         log.info("Keyword updated successfully");
 
-        return ResponseEntity.ok(updated);
+        return ResponseEntity.ok().eTag(eTag(updated)).body(updated);
     }
 
     @DeleteMapping("/{id}")
@@ -153,4 +240,112 @@ public class KeywordController {
 
         return ResponseEntity.ok(masked);
     }
+
+    @PostMapping(value = "/mask", consumes = MediaType.TEXT_PLAIN_VALUE, produces = TEXT_PLAIN_UTF8)
+    @Operation(summary = "Mask sensitive words in raw UTF-8 text",
+            description = "Masks the request body without JSON or String decoding; for high-volume callers",
+            requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(required = true,
+                    description = "UTF-8 text to be masked",
+                    content = @Content(mediaType = MediaType.TEXT_PLAIN_VALUE, schema = @Schema(type = "string"))))
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Text masked successfully",
+                    content = @Content(mediaType = TEXT_PLAIN_UTF8, schema = @Schema(implementation = String.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid input",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "413", description = "Body longer than any valid input",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "422", description = "Masking failed",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public ResponseEntity<byte[]> maskSensitiveWordsUtf8(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            @RequestHeader(value = HttpHeaders.CONTENT_LENGTH, required = false) Long contentLength,
+            @Parameter(hidden = true) InputStream body) throws IOException {
+
+        if (contentType.getCharset() != null && !StandardCharsets.UTF_8.equals(contentType.getCharset())) {
+            throw new ValidationException("Only UTF-8 text is supported, got " + contentType.getCharset());
+        }
+        byte[] input = readBounded(body, contentLength, StringMaskService.MAX_INPUT_UTF8_BYTES);
+        log.info("Masking sensitive words in UTF-8 input ({} bytes)", input.length);
+
+        byte[] masked = stringMaskService.maskSensitiveWords(input);
+
+        log.info("Text masked successfully. Masked bytes: {}", masked.length);
+
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(TEXT_PLAIN_UTF8)).body(masked);
+    }
+
+    @PostMapping("/detect")
+    @Operation(summary = "Find sensitive words in input text",
+            description = "Reports where keywords occur without masking; offsets are char indexes in the input")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Input searched successfully",
+                    content = @Content(schema = @Schema(implementation = DetectResponseDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid input",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "422", description = "Detection failed",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public ResponseEntity<DetectResponseDTO> detectSensitiveWords(
+            @Parameter(description = "Text to be searched", required = true)
+            @Valid @RequestBody MaskRequestDTO request) {
+
+        log.debug("Detecting sensitive words in input text (length: {})", request.getInput().length());
+        DetectResponseDTO report = stringMaskService.detectSensitiveWords(request.getInput());
+        log.debug("Found {} matches", report.getMatchCount());
+
+        return ResponseEntity.ok(report);
+    }
+
+    @PostMapping("/detect/any")
+    @Operation(summary = "Check whether input text contains any sensitive word",
+            description = "Stops at the first match; only the found flag is set in the response")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Input searched successfully",
+                    content = @Content(schema = @Schema(implementation = DetectResponseDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid input",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "422", description = "Detection failed",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public ResponseEntity<DetectResponseDTO> containsSensitiveWords(
+            @Parameter(description = "Text to be searched", required = true)
+            @Valid @RequestBody MaskRequestDTO request) {
+
+        boolean found = stringMaskService.containsSensitiveWords(request.getInput());
+
+        return ResponseEntity.ok(DetectResponseDTO.builder().found(found).build());
+    }
+
+    private static String eTag(KeywordDTO keyword) {
+        return "\"" + keyword.getVersion() + "\"";
+    }
+
+    // Rejects an over-long body from its Content-Length, or after reading one byte past the limit
+    // when it is chunked, so a large body is never buffered whole
+    private static byte[] readBounded(InputStream body, Long contentLength, int maxBytes) throws IOException {
+        if (contentLength != null && contentLength > maxBytes) {
+            throw new PayloadTooLargeException(maxBytes);
+        }
+        byte[] bytes = body.readNBytes(maxBytes + 1);
+        if (bytes.length > maxBytes) {
+            throw new PayloadTooLargeException(maxBytes);
+        }
+        return bytes;
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim();
+            boolean refused = parts.length > 1 && parts[1].trim().matches("q=0(\\.0{0,3})?");
+            if ((name.equalsIgnoreCase("gzip") || name.equals("*")) && !refused) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
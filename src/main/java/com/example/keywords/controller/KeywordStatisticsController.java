@@ -0,0 +1,51 @@
+package com.example.keywords.controller;
+
+import com.example.keywords.dto.ErrorResponse;
+import com.example.keywords.dto.KeywordHitsDTO;
+import com.example.keywords.services.KeywordStatisticsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/keywords/statistics")
+@RequiredArgsConstructor
+@Tag(name = "Keyword Statistics", description = "APIs for seeing which keywords match")
+public class KeywordStatisticsController {
+
+    private final KeywordStatisticsService keywordStatisticsService;
+
+    @GetMapping
+    @Operation(summary = "Get the most or least matched keywords",
+            description = "Counts come from every instance and are as recent as each one's last flush")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Statistics retrieved successfully",
+                    content = @Content(array = @ArraySchema(schema = @Schema(implementation = KeywordHitsDTO.class)))),
+            @ApiResponse(responseCode = "400", description = "Invalid limit",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public ResponseEntity<List<KeywordHitsDTO>> getKeywordHits(
+            @Parameter(description = "Number of keywords to return, at most 1000", example = "20")
+            @RequestParam(defaultValue = "20") int limit,
+            @Parameter(description = "Return the least matched keywords, including those that never matched")
+            @RequestParam(defaultValue = "false") boolean least) {
+
+        log.debug("Fetching {} {} matched keywords", limit, least ? "least" : "most");
+        return ResponseEntity.ok(keywordStatisticsService.getKeywordHits(limit, least));
+    }
+}
@@ -8,10 +8,12 @@ public enum ApiErrorCode {
     KEYWORD_NOT_FOUND("KEYWORD_001", "Keyword not found"),
     KEYWORD_ALREADY_EXISTS("KEYWORD_002", "Keyword already exists"),
     KEYWORD_VALIDATION_FAILED("KEYWORD_003", "Keyword validation failed"),
+    KEYWORD_MODIFIED("KEYWORD_004", "Keyword was modified by another request"),
 
     // Input validation errors
     INPUT_VALIDATION_FAILED("INPUT_001", "Input validation failed"),
     INVALID_INPUT_FORMAT("INPUT_002", "Invalid input format"),
+    INPUT_TOO_LARGE("INPUT_003", "Input too large"),
 
     // Database errors
     DATABASE_CONSTRAINT_VIOLATION("DB_001", "Database constraint violation"),
@@ -0,0 +1,49 @@
+package com.example.keywords.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "Where sensitive words occur in the input; only found is set when asking whether any occur")
+public class DetectResponseDTO {
+
+    @Schema(description = "Whether the input contains at least one keyword", example = "true")
+    private boolean found;
+
+    @Schema(description = "Number of matches", example = "3")
+    private Integer matchCount;
+
+    @Schema(description = "Matches in input order, as they would be masked")
+    private List<Match> matches;
+
+    @Schema(description = "Matches per keyword id", example = "{\"1\": 1, \"2\": 2}")
+    private Map<Long, Integer> keywordCounts;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @Schema(description = "One keyword occurrence")
+    public static class Match {
+
+        @Schema(description = "Index of the first matched character", example = "0")
+        private int start;
+
+        @Schema(description = "Index after the last matched character", example = "6")
+        private int end;
+
+        @Schema(description = "Id of the matched keyword; absent while the snapshot has no ids", example = "1")
+        private Long keywordId;
+    }
+}
@@ -1,12 +1,17 @@
 package com.example.keywords.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 @Data
+@NoArgsConstructor
+@AllArgsConstructor
 @Schema(description = "Keyword Data Transfer Object")
 public class KeywordDTO {
 
@@ -15,7 +20,16 @@ public class KeywordDTO {
 
     @NotBlank(message = "Keyword word is required")
     @Size(min = 1, max = 255, message = "Keyword must be between 1 and 255 characters")
-    @Pattern(regexp = "^[a-zA-Z_*]+$", message = "Keyword can only contain letters, underscores, and asterisks")
-    @Schema(description = "Keyword word", example = "SELECT", required = true)
+    // Letters of any script, which the matcher folds char by char and treats as word chars
+    @Pattern(regexp = "^(?:[\\p{L}_*?]|\\[[\\p{L}_-]+\\])+(?:\\s+(?:[\\p{L}_*?]|\\[[\\p{L}_-]+\\])+)*$",
+            message = "Keyword can only contain letters, underscores, and asterisks, plus '?' and classes such as "
+                    + "[a-f], with whitespace between words")
+    @Schema(description = "Keyword word, phrase or pattern: a trailing * matches the rest of a word, ? one word "
+            + "character and [a-f] one character of the class; whitespace inside a phrase is stored as single spaces",
+            example = "SYSTBL*", required = true)
     private String word;
+
+    // Sent as the ETag header rather than in the body
+    @JsonIgnore
+    private Long version;
 }
@@ -0,0 +1,32 @@
+package com.example.keywords.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "How often a keyword has matched")
+public class KeywordHitsDTO {
+
+    @Schema(description = "Keyword ID", example = "1")
+    private Long id;
+
+    @Schema(description = "The keyword", example = "SELECT")
+    private String word;
+
+    @Schema(description = "Matches counted across all instances up to their last flush", example = "1520")
+    private Long hitCount;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd HH:mm:ss")
+    @Schema(description = "Flush time of the latest match; absent if the keyword never matched",
+            example = "2024-01-15 10:30:00")
+    private LocalDateTime lastHitAt;
+}
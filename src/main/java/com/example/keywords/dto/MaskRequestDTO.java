@@ -6,13 +6,13 @@ import jakarta.validation.constraints.Size;
 import lombok.Data;
 
 @Data
-@Schema(description = "Request for masking sensitive words")
+@Schema(description = "Request for masking or finding sensitive words")
 public class MaskRequestDTO {
 
     @NotBlank(message = "Input text is required")
     @Size(max = 10000, message = "Input text cannot exceed 10000 characters")
-    @Schema(description = "Input text to be masked",
+    @Schema(description = "Input text to be masked or searched",
             example = "SELECT * FROM users WHERE id = 1",
-            required = true)
+            requiredMode = Schema.RequiredMode.REQUIRED)
     private String input;
 }
\ No newline at end of file
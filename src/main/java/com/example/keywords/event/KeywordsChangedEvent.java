@@ -0,0 +1,14 @@
+package com.example.keywords.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Published by the keyword service after a keyword is created, updated or deleted.
+ */
+@Getter
+@RequiredArgsConstructor
+public class KeywordsChangedEvent {
+
+    private final Long keywordId;
+}
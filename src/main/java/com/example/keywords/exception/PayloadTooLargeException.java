@@ -0,0 +1,16 @@
+package com.example.keywords.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.PAYLOAD_TOO_LARGE)
+public class PayloadTooLargeException extends RuntimeException {
+
+    public PayloadTooLargeException(String message) {
+        super(message);
+    }
+
+    public PayloadTooLargeException(long maxBytes) {
+        super(String.format("Request body exceeds the maximum of %d bytes", maxBytes));
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.keywords.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+public class PreconditionFailedException extends RuntimeException {
+
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+
+    public PreconditionFailedException(String resourceName, Object id) {
+        super(String.format("%s with id '%s' was modified since the version given in If-Match", resourceName, id));
+    }
+}
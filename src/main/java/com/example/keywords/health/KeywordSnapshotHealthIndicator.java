@@ -0,0 +1,53 @@
+package com.example.keywords.health;
+
+import com.example.keywords.matcher.KeywordSnapshot;
+import com.example.keywords.services.KeywordSnapshotService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Reports the keyword snapshot used for masking. Part of the readiness group, so an instance only
+ * receives traffic once masking can run from memory. A degraded snapshot is still UP: masking keeps
+ * working from it while the database is unreachable, and so is one whose latest rebuild failed; the
+ * reason shows under {@code lastRefreshError} until a rebuild succeeds.
+ */
+@Component
+@RequiredArgsConstructor
+public class KeywordSnapshotHealthIndicator implements HealthIndicator {
+
+    private final KeywordSnapshotService keywordSnapshotService;
+
+    @Override
+    public Health health() {
+        Health.Builder health = keywordSnapshotService.findSnapshot()
+                .map(this::loaded)
+                .orElseGet(() -> Health.outOfService()
+                        .withDetail("reason", "Keyword snapshot has not been loaded yet")
+                        .withDetail("circuit", String.valueOf(keywordSnapshotService.getCircuitState())));
+        String lastRefreshError = keywordSnapshotService.getLastRefreshError();
+        if (lastRefreshError != null) {
+            health.withDetail("lastRefreshError", lastRefreshError);
+        }
+        return health.build();
+    }
+
+    private Health.Builder loaded(KeywordSnapshot snapshot) {
+        Instant lastSyncedAt = keywordSnapshotService.getLastSyncedAt();
+        return Health.up()
+                .withDetail("version", snapshot.getVersion())
+                .withDetail("size", snapshot.size())
+                .withDetail("states", snapshot.getMatcher().stateCount())
+                .withDetail("builtAt", snapshot.getBuiltAt().toString())
+                .withDetail("ageSeconds", Duration.between(snapshot.getBuiltAt(), Instant.now()).toSeconds())
+                .withDetail("lastBuildMillis", snapshot.getBuildDuration().toMillis())
+                .withDetail("degraded", keywordSnapshotService.isDegraded())
+                .withDetail("lastSyncedAt", String.valueOf(lastSyncedAt))
+                .withDetail("stalenessSeconds", KeywordSnapshotMetrics.stalenessSeconds(lastSyncedAt))
+                .withDetail("circuit", String.valueOf(keywordSnapshotService.getCircuitState()));
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.keywords.health;
+
+import com.example.keywords.matcher.KeywordSnapshot;
+import com.example.keywords.resilience.CircuitBreaker;
+import com.example.keywords.services.KeywordSnapshotService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Staleness gauges for the keyword snapshot, so an instance masking from an old snapshot during a
+ * database outage shows up on dashboards rather than only in the logs.
+ */
+@Component
+@RequiredArgsConstructor
+public class KeywordSnapshotMetrics implements MeterBinder {
+
+    private final KeywordSnapshotService keywordSnapshotService;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("keywords.snapshot.staleness", keywordSnapshotService,
+                        service -> stalenessSeconds(service.getLastSyncedAt()))
+                .description("Time since the database last confirmed the snapshot, -1 if it never has")
+                .baseUnit("seconds")
+                .register(registry);
+        Gauge.builder("keywords.snapshot.age", keywordSnapshotService,
+                        service -> service.findSnapshot()
+                                .map(snapshot -> (double) Duration.between(snapshot.getBuiltAt(), Instant.now()).toSeconds())
+                                .orElse(-1.0))
+                .description("Time since the snapshot in use was built")
+                .baseUnit("seconds")
+                .register(registry);
+        Gauge.builder("keywords.snapshot.size", keywordSnapshotService,
+                        service -> service.findSnapshot().map(KeywordSnapshot::size).orElse(0))
+                .description("Keywords in the snapshot in use")
+                .register(registry);
+        Gauge.builder("keywords.snapshot.degraded", keywordSnapshotService,
+                        service -> service.isDegraded() ? 1 : 0)
+                .description("1 while masking runs without a successful database check since the last failure")
+                .register(registry);
+        Gauge.builder("keywords.snapshot.refresh.failing", keywordSnapshotService,
+                        service -> service.getLastRefreshError() != null ? 1 : 0)
+                .description("1 while the last snapshot rebuild failed, so masking runs from an older keyword set")
+                .register(registry);
+        Gauge.builder("keywords.snapshot.circuit.open", keywordSnapshotService,
+                        service -> service.getCircuitState() == CircuitBreaker.State.CLOSED ? 0 : 1)
+                .description("1 while database reads for the snapshot are short-circuited")
+                .register(registry);
+    }
+
+    static long stalenessSeconds(Instant lastSyncedAt) {
+        return lastSyncedAt == null ? -1 : Duration.between(lastSyncedAt, Instant.now()).toSeconds();
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.keywords.matcher;
+
+/**
+ * Finds positions in UTF-8 text where a keyword match could start, so that the matcher only runs
+ * there. Conservative: it may report positions where nothing matches, but never skips a match.
+ */
+public interface CandidateFilter {
+
+    /**
+     * @return the first position at or after {@code from} that could start a match, or {@code length}
+     */
+    int next(byte[] utf8, int from, int length);
+}
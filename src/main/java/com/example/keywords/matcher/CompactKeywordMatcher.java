@@ -0,0 +1,145 @@
+package com.example.keywords.matcher;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Trie stored in flat primitive arrays.
+ *
+ * <p>States are numbered breadth-first, so the outgoing edges of a state are contiguous and every
+ * non-root state is created by exactly one edge: edge {@code e} always leads to state {@code e + 1}
+ * and no target array is needed. Edges of a state are sorted by label. A state costs about ten
+ * bytes (one {@code int} edge offset, one {@code char} label and one {@code int} keyword index),
+ * and the whole trie is three arrays for the garbage collector to trace.
+ *
+ * <p>An automaton compiled from keyword {@link KeywordPattern patterns} is not a tree, so it keeps a
+ * fourth array with the target of every edge, and a state's {@link #WILDCARD} edge sorts last.
+ */
+public final class CompactKeywordMatcher extends FlatKeywordMatcher {
+
+    // firstEdge[s]..firstEdge[s + 1] are the edges of state s
+    private final int[] firstEdge;
+    private final char[] edgeLabels;
+    // Null for a trie, where edge e leads to state e + 1
+    private final int[] edgeTargets;
+    private final int[] keywordIndexes;
+
+    CompactKeywordMatcher(int[] firstEdge, char[] edgeLabels, int[] edgeTargets, int[] keywordIndexes,
+                          int keywordCount) {
+        super(edgeTargets != null, keywordCount);
+        this.firstEdge = firstEdge;
+        this.edgeLabels = edgeLabels;
+        this.edgeTargets = edgeTargets;
+        this.keywordIndexes = keywordIndexes;
+        indexRoot();
+    }
+
+    public static CompactKeywordMatcher build(List<String> keywords) {
+        if (KeywordAutomaton.hasPatterns(keywords)) {
+            KeywordAutomaton automaton = KeywordAutomaton.build(keywords);
+            return new CompactKeywordMatcher(automaton.firstEdge, automaton.edgeLabels, automaton.edgeTargets,
+                    automaton.keywordIndexes, keywords.size());
+        }
+        int count = keywords.size();
+        String[] folded = new String[count];
+        Integer[] order = new Integer[count];
+        int maxStates = 1;
+        for (int i = 0; i < count; i++) {
+            folded[i] = KeywordMatchers.normalize(keywords.get(i));
+            order[i] = i;
+            maxStates += folded[i].length();
+        }
+        Arrays.sort(order, Comparator.<Integer, String>comparing(i -> folded[i]).thenComparing(i -> i));
+
+        // Each state covers the range of sorted keywords sharing its prefix
+        int[] rangeStart = new int[maxStates];
+        int[] rangeEnd = new int[maxStates];
+        int[] depth = new int[maxStates];
+        int[] firstEdge = new int[maxStates + 1];
+        char[] edgeLabels = new char[maxStates];
+        int[] keywordIndexes = new int[maxStates];
+
+        int states = 1;
+        rangeEnd[ROOT] = count;
+        for (int s = 0; s < states; s++) {
+            firstEdge[s] = states - 1;
+            keywordIndexes[s] = -1;
+            int lo = rangeStart[s];
+            int hi = rangeEnd[s];
+            int d = depth[s];
+
+            // Keywords ending here sort first; the lowest index wins among duplicates
+            while (lo < hi && folded[order[lo]].length() == d) {
+                if (keywordIndexes[s] < 0 && d > 0) {
+                    keywordIndexes[s] = order[lo];
+                }
+                lo++;
+            }
+
+            while (lo < hi) {
+                char label = folded[order[lo]].charAt(d);
+                int groupEnd = lo + 1;
+                while (groupEnd < hi && folded[order[groupEnd]].charAt(d) == label) {
+                    groupEnd++;
+                }
+                edgeLabels[states - 1] = label;
+                rangeStart[states] = lo;
+                rangeEnd[states] = groupEnd;
+                depth[states] = d + 1;
+                states++;
+                lo = groupEnd;
+            }
+        }
+        firstEdge[states] = states - 1;
+
+        return new CompactKeywordMatcher(
+                Arrays.copyOf(firstEdge, states + 1),
+                Arrays.copyOf(edgeLabels, states - 1),
+                null,
+                Arrays.copyOf(keywordIndexes, states),
+                count);
+    }
+
+    @Override
+    int firstEdge(int state) {
+        return firstEdge[state];
+    }
+
+    @Override
+    char edgeLabel(int edge) {
+        return edgeLabels[edge];
+    }
+
+    @Override
+    int edgeTarget(int edge) {
+        return edgeTargets[edge];
+    }
+
+    @Override
+    public int keywordIndex(int state) {
+        return keywordIndexes[state];
+    }
+
+    @Override
+    public int stateCount() {
+        return keywordIndexes.length;
+    }
+
+    int[] firstEdge() {
+        return firstEdge;
+    }
+
+    char[] edgeLabels() {
+        return edgeLabels;
+    }
+
+    // Null for a trie
+    int[] edgeTargets() {
+        return edgeTargets;
+    }
+
+    int[] keywordIndexes() {
+        return keywordIndexes;
+    }
+}
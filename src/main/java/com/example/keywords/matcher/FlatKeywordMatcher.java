@@ -0,0 +1,105 @@
+package com.example.keywords.matcher;
+
+/**
+ * Traversal of the flat layout described in {@link CompactKeywordMatcher}, written once against a
+ * few accessors so that heap arrays and a mapped {@link MatcherImage} walk states the same way.
+ *
+ * <p>Subclasses assign their storage and then call {@link #indexRoot()}, which reads it.
+ */
+abstract class FlatKeywordMatcher implements KeywordMatcher {
+
+    private static final int LINEAR_SCAN_LIMIT = 8;
+    private static final int ROOT_TABLE_SIZE = 128;
+
+    // False for a trie, where edge e leads to state e + 1
+    private final boolean hasEdgeTargets;
+    private final int keywordCount;
+    // Direct lookup for the root, which has the most edges and is visited at every candidate start
+    private final int[] rootTable = new int[ROOT_TABLE_SIZE];
+
+    FlatKeywordMatcher(boolean hasEdgeTargets, int keywordCount) {
+        this.hasEdgeTargets = hasEdgeTargets;
+        this.keywordCount = keywordCount;
+    }
+
+    // firstEdge(s)..firstEdge(s + 1) are the edges of state s
+    abstract int firstEdge(int state);
+
+    abstract char edgeLabel(int edge);
+
+    // Only called when the layout has edge targets
+    abstract int edgeTarget(int edge);
+
+    // Only automata compiled from patterns have edge targets
+    final boolean hasEdgeTargets() {
+        return hasEdgeTargets;
+    }
+
+    final void indexRoot() {
+        for (char c = 0; c < ROOT_TABLE_SIZE; c++) {
+            rootTable[c] = lookup(ROOT, c);
+        }
+    }
+
+    @Override
+    public final int transition(int state, char c) {
+        if (state == ROOT && c < ROOT_TABLE_SIZE) {
+            return rootTable[c];
+        }
+        return lookup(state, c);
+    }
+
+    private int lookup(int state, char c) {
+        int lo = firstEdge(state);
+        int hi = firstEdge(state + 1);
+        if (!hasEdgeTargets) {
+            int e = findEdge(lo, hi, c);
+            return e < 0 ? NO_STATE : e + 1;
+        }
+        boolean hasWildcard = lo < hi && edgeLabel(hi - 1) == WILDCARD;
+        int e = findEdge(lo, hasWildcard ? hi - 1 : hi, c);
+        if (e < 0) {
+            if (!hasWildcard || !KeywordMatchers.isWordChar(c)) {
+                return NO_STATE;
+            }
+            e = hi - 1;
+        }
+        return edgeTarget(e);
+    }
+
+    private int findEdge(int lo, int hi, char c) {
+        if (hi - lo <= LINEAR_SCAN_LIMIT) {
+            for (int e = lo; e < hi; e++) {
+                if (edgeLabel(e) == c) {
+                    return e;
+                }
+            }
+            return -1;
+        }
+        hi--;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            char label = edgeLabel(mid);
+            if (label < c) {
+                lo = mid + 1;
+            } else if (label > c) {
+                hi = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public final int keywordCount() {
+        return keywordCount;
+    }
+
+    @Override
+    public final void forEachTransition(int state, TransitionVisitor visitor) {
+        for (int e = firstEdge(state); e < firstEdge(state + 1); e++) {
+            visitor.visit(edgeLabel(e), hasEdgeTargets ? edgeTarget(e) : e + 1);
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.keywords.matcher;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Second matcher that catches common ways of disguising a keyword, built from the same keyword list.
+ *
+ * <p>Keywords and input are both reduced to a canonical form before matching:
+ * <ul>
+ *   <li>look-alike digits and symbols become letters, so {@code S3LECT} and {@code $ELECT} read as {@code SELECT}</li>
+ *   <li>punctuation and underscores between two word chars are dropped, so {@code S.E.L.E.C.T} does too</li>
+ *   <li>a run of the same letter counts once, so {@code SSELLECT} does too</li>
+ * </ul>
+ *
+ * Reducing the input is one pass and the canonical matcher is the usual single-pass automaton, so
+ * the cost stays linear in the input whatever it contains. Matches are reported with the indexes
+ * of the original text. Keywords with {@link KeywordPattern patterns} are left to the exact matcher.
+ */
+public final class FuzzyKeywordIndex {
+
+    // How often, in input chars, reducing the input checks the deadline
+    private static final int DEADLINE_CHECK_INTERVAL = 1024;
+    private static final char[] LOOK_ALIKE = new char[128];
+
+    static {
+        for (char c = 0; c < LOOK_ALIKE.length; c++) {
+            LOOK_ALIKE[c] = c;
+        }
+        // Only digits and symbols are mapped: folding one letter into another would merge ordinary
+        // words, as L into I turns ALL into AI once runs collapse
+        LOOK_ALIKE['0'] = 'O';
+        LOOK_ALIKE['1'] = 'I';
+        LOOK_ALIKE['!'] = 'I';
+        LOOK_ALIKE['|'] = 'I';
+        LOOK_ALIKE['3'] = 'E';
+        LOOK_ALIKE['4'] = 'A';
+        LOOK_ALIKE['@'] = 'A';
+        LOOK_ALIKE['5'] = 'S';
+        LOOK_ALIKE['$'] = 'S';
+        LOOK_ALIKE['7'] = 'T';
+        LOOK_ALIKE['8'] = 'B';
+        LOOK_ALIKE['9'] = 'G';
+    }
+
+    private final KeywordMatcher matcher;
+    private final long budgetNanos;
+
+    private FuzzyKeywordIndex(KeywordMatcher matcher, Duration budget) {
+        this.matcher = matcher;
+        this.budgetNanos = budget.toNanos();
+    }
+
+    /**
+     * @param budget time one {@link #scan} may take before it gives up
+     */
+    public static FuzzyKeywordIndex build(MatcherType type, List<String> keywords, Duration budget) {
+        List<String> canonical = new ArrayList<>(keywords.size());
+        for (String keyword : keywords) {
+            // An empty entry keeps the keyword indexes of both matchers the same
+            canonical.add(KeywordAutomaton.parseOrLiteral(keyword).isLiteral() ? canonicalize(keyword) : "");
+        }
+        return new FuzzyKeywordIndex(KeywordMatchers.compile(type, canonical), budget);
+    }
+
+    /**
+     * Reports matches of disguised keywords, including most that the exact matcher also finds.
+     *
+     * @return {@code false} if the scan ran out of its budget before covering the whole text
+     */
+    public boolean scan(CharSequence text, MatchHandler handler) {
+        long deadlineNanos = System.nanoTime() + budgetNanos;
+        Canonical canonical = reduce(text, deadlineNanos);
+        if (canonical == null) {
+            return false;
+        }
+        boolean[] expired = new boolean[1];
+        matcher.scan(canonical.text(), (start, end, keywordIndex) -> {
+            if (System.nanoTime() - deadlineNanos > 0) {
+                expired[0] = true;
+                return false;
+            }
+            return handler.onMatch(canonical.from[start], canonical.to[end - 1], keywordIndex);
+        });
+        return !expired[0];
+    }
+
+    public int stateCount() {
+        return matcher.stateCount();
+    }
+
+    static String canonicalize(String keyword) {
+        return reduce(KeywordMatchers.normalizeWhitespace(keyword), Long.MAX_VALUE).text();
+    }
+
+    private static Canonical reduce(CharSequence text, long deadlineNanos) {
+        Canonical out = new Canonical(text.length());
+        // Separators seen since the last word char, emitted only if no word char follows them
+        int pendingFrom = -1;
+        for (int i = 0; i < text.length(); i++) {
+            if (i % DEADLINE_CHECK_INTERVAL == DEADLINE_CHECK_INTERVAL - 1 && System.nanoTime() - deadlineNanos > 0) {
+                return null;
+            }
+            char c = lookAlike(KeywordMatchers.normalize(text.charAt(i)));
+            if (isSeparator(c)) {
+                if (pendingFrom < 0) {
+                    pendingFrom = i;
+                }
+                continue;
+            }
+            boolean word = KeywordMatchers.isWordChar(c);
+            if (pendingFrom >= 0) {
+                if (!word || !out.endsWithWordChar()) {
+                    for (int p = pendingFrom; p < i; p++) {
+                        out.append(lookAlike(KeywordMatchers.normalize(text.charAt(p))), p);
+                    }
+                }
+                pendingFrom = -1;
+            }
+            if (word && out.length > 0 && out.chars[out.length - 1] == c) {
+                out.to[out.length - 1] = i + 1;
+            } else {
+                out.append(c, i);
+            }
+        }
+        if (pendingFrom >= 0) {
+            for (int p = pendingFrom; p < text.length(); p++) {
+                out.append(lookAlike(KeywordMatchers.normalize(text.charAt(p))), p);
+            }
+        }
+        return out;
+    }
+
+    private static char lookAlike(char c) {
+        return c < LOOK_ALIKE.length ? LOOK_ALIKE[c] : c;
+    }
+
+    private static boolean isSeparator(char c) {
+        return c == '_' || (c != ' ' && !KeywordMatchers.isWordChar(c) && !KeywordMatchers.isSpace(c));
+    }
+
+    // Canonical chars with, for each, the range of original chars it stands for
+    private static final class Canonical {
+        private final char[] chars;
+        private final int[] from;
+        private final int[] to;
+        private int length;
+
+        private Canonical(int capacity) {
+            chars = new char[capacity];
+            from = new int[capacity];
+            to = new int[capacity];
+        }
+
+        private void append(char c, int index) {
+            chars[length] = c;
+            from[length] = index;
+            to[length] = index + 1;
+            length++;
+        }
+
+        private boolean endsWithWordChar() {
+            return length > 0 && KeywordMatchers.isWordChar(chars[length - 1]);
+        }
+
+        private String text() {
+            return new String(chars, 0, length);
+        }
+    }
+}
@@ -0,0 +1,300 @@
+package com.example.keywords.matcher;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Deterministic automaton for a keyword set that contains {@link KeywordPattern patterns}.
+ *
+ * <p>The patterns are first laid out as a nondeterministic automaton: plain keyword chars share a
+ * trie, while every other element gets fresh states. Subset construction then turns it into one
+ * deterministic automaton, so a scan still takes one step per input char however many patterns
+ * there are. A word char without an edge of its own follows the {@link KeywordMatcher#WILDCARD}
+ * edge, which is always the last edge of its state.
+ *
+ * <p>Unlike a trie, states can have several incoming edges and loops, so edge targets are explicit.
+ */
+final class KeywordAutomaton {
+
+    static final int MAX_STATES = 1 << 22;
+
+    final int[] firstEdge;
+    final char[] edgeLabels;
+    final int[] edgeTargets;
+    final int[] keywordIndexes;
+
+    private KeywordAutomaton(int[] firstEdge, char[] edgeLabels, int[] edgeTargets, int[] keywordIndexes) {
+        this.firstEdge = firstEdge;
+        this.edgeLabels = edgeLabels;
+        this.edgeTargets = edgeTargets;
+        this.keywordIndexes = keywordIndexes;
+    }
+
+    static boolean hasPatterns(List<String> keywords) {
+        for (String keyword : keywords) {
+            if (KeywordPattern.mayContainPattern(keyword) && !parseOrLiteral(keyword).isLiteral()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the patterns expand to more than {@link #MAX_STATES} states
+     */
+    static KeywordAutomaton build(List<String> keywords) {
+        return build(keywords, MAX_STATES);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the patterns expand to more than {@code maxStates} states
+     */
+    static KeywordAutomaton build(List<String> keywords, int maxStates) {
+        Nfa nfa = new Nfa();
+        for (int i = 0; i < keywords.size(); i++) {
+            String keyword = keywords.get(i);
+            if (keyword.indexOf(KeywordMatcher.WILDCARD) < 0) {
+                nfa.add(parseOrLiteral(keyword), i);
+            }
+        }
+        return nfa.determinize(Math.min(maxStates, MAX_STATES));
+    }
+
+    // Rows written before patterns existed may not parse; they keep matching as plain text
+    static KeywordPattern parseOrLiteral(String keyword) {
+        try {
+            return KeywordPattern.parse(keyword);
+        } catch (IllegalArgumentException e) {
+            return KeywordPattern.literal(keyword);
+        }
+    }
+
+    private static final class Nfa {
+        // Shared trie children, reached only through plain chars
+        private final List<Map<Character, Integer>> trie = new ArrayList<>();
+        // Edges into states that belong to a single pattern
+        private final List<Map<Character, int[]>> edges = new ArrayList<>();
+        private final List<int[]> anyWordChar = new ArrayList<>();
+        private final List<Integer> accepts = new ArrayList<>();
+
+        private Nfa() {
+            newState();
+        }
+
+        private int newState() {
+            trie.add(null);
+            edges.add(null);
+            anyWordChar.add(null);
+            accepts.add(-1);
+            return accepts.size() - 1;
+        }
+
+        private void add(KeywordPattern pattern, int keywordIndex) {
+            if (pattern.elements().isEmpty()) {
+                return;
+            }
+            int[] current = {KeywordMatcher.ROOT};
+            boolean onTrie = true;
+            for (KeywordPattern.Element element : pattern.elements()) {
+                switch (element.kind()) {
+                    case CHARS -> {
+                        if (onTrie && element.chars().length == 1) {
+                            current = new int[]{trieChild(current[0], element.chars()[0])};
+                        } else {
+                            int target = newState();
+                            for (int state : current) {
+                                for (char c : element.chars()) {
+                                    addEdge(state, c, target);
+                                }
+                            }
+                            current = new int[]{target};
+                            onTrie = false;
+                        }
+                    }
+                    case ANY_WORD_CHAR -> {
+                        int target = newState();
+                        for (int state : current) {
+                            addAnyWordChar(state, target);
+                        }
+                        current = new int[]{target};
+                        onTrie = false;
+                    }
+                    case REST_OF_WORD -> {
+                        // The word may already be complete, so the states before the star stay current
+                        int loop = newState();
+                        for (int state : current) {
+                            addAnyWordChar(state, loop);
+                        }
+                        addAnyWordChar(loop, loop);
+                        current = Arrays.copyOf(current, current.length + 1);
+                        current[current.length - 1] = loop;
+                        onTrie = false;
+                    }
+                }
+            }
+            for (int state : current) {
+                int accept = accepts.get(state);
+                if (accept < 0 || keywordIndex < accept) {
+                    accepts.set(state, keywordIndex);
+                }
+            }
+        }
+
+        private int trieChild(int state, char c) {
+            Map<Character, Integer> children = trie.get(state);
+            if (children == null) {
+                children = new HashMap<>();
+                trie.set(state, children);
+            }
+            Integer child = children.get(c);
+            if (child == null) {
+                child = newState();
+                children.put(c, child);
+            }
+            return child;
+        }
+
+        private void addEdge(int state, char c, int target) {
+            Map<Character, int[]> out = edges.get(state);
+            if (out == null) {
+                out = new HashMap<>();
+                edges.set(state, out);
+            }
+            out.merge(c, new int[]{target}, Nfa::concat);
+        }
+
+        private void addAnyWordChar(int state, int target) {
+            int[] targets = anyWordChar.get(state);
+            anyWordChar.set(state, targets == null ? new int[]{target} : concat(targets, new int[]{target}));
+        }
+
+        private KeywordAutomaton determinize(int maxStates) {
+            Map<StateSet, Integer> ids = new HashMap<>();
+            List<int[]> sets = new ArrayList<>();
+            IntList firstEdge = new IntList();
+            StringBuilder labels = new StringBuilder();
+            IntList targets = new IntList();
+            IntList keywordIndexes = new IntList();
+
+            int[] root = {KeywordMatcher.ROOT};
+            ids.put(new StateSet(root), 0);
+            sets.add(root);
+            for (int d = 0; d < sets.size(); d++) {
+                int[] set = sets.get(d);
+                firstEdge.add(labels.length());
+
+                // Every explicit label of any member; word chars also take the members' wildcard edges
+                TreeMap<Character, IntList> byLabel = new TreeMap<>();
+                IntList wildcard = new IntList();
+                int accept = -1;
+                for (int state : set) {
+                    Map<Character, Integer> children = trie.get(state);
+                    if (children != null) {
+                        children.forEach((c, child) -> byLabel.computeIfAbsent(c, k -> new IntList()).add(child));
+                    }
+                    Map<Character, int[]> out = edges.get(state);
+                    if (out != null) {
+                        out.forEach((c, to) -> byLabel.computeIfAbsent(c, k -> new IntList()).addAll(to));
+                    }
+                    int[] any = anyWordChar.get(state);
+                    if (any != null) {
+                        wildcard.addAll(any);
+                    }
+                    int stateAccept = accepts.get(state);
+                    if (stateAccept >= 0 && (accept < 0 || stateAccept < accept)) {
+                        accept = stateAccept;
+                    }
+                }
+                keywordIndexes.add(d == 0 ? -1 : accept);
+
+                for (Map.Entry<Character, IntList> entry : byLabel.entrySet()) {
+                    IntList to = entry.getValue();
+                    if (KeywordMatchers.isWordChar(entry.getKey())) {
+                        to.addAll(wildcard.toArray());
+                    }
+                    labels.append(entry.getKey());
+                    targets.add(id(to.toSortedSet(), ids, sets, maxStates));
+                }
+                if (wildcard.size() > 0) {
+                    labels.append(KeywordMatcher.WILDCARD);
+                    targets.add(id(wildcard.toSortedSet(), ids, sets, maxStates));
+                }
+            }
+            firstEdge.add(labels.length());
+
+            return new KeywordAutomaton(firstEdge.toArray(), labels.toString().toCharArray(),
+                    targets.toArray(), keywordIndexes.toArray());
+        }
+
+        private static int id(int[] set, Map<StateSet, Integer> ids, List<int[]> sets, int maxStates) {
+            return ids.computeIfAbsent(new StateSet(set), key -> {
+                if (sets.size() == maxStates) {
+                    throw new IllegalArgumentException(
+                            "Keyword patterns expand to more than " + maxStates + " automaton states");
+                }
+                sets.add(set);
+                return sets.size() - 1;
+            });
+        }
+
+        private static int[] concat(int[] a, int[] b) {
+            int[] joined = Arrays.copyOf(a, a.length + b.length);
+            System.arraycopy(b, 0, joined, a.length, b.length);
+            return joined;
+        }
+    }
+
+    private record StateSet(int[] states) {
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof StateSet set && Arrays.equals(states, set.states);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(states);
+        }
+    }
+
+    private static final class IntList {
+        private int[] values = new int[4];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        void addAll(int[] more) {
+            for (int value : more) {
+                add(value);
+            }
+        }
+
+        int size() {
+            return size;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+
+        int[] toSortedSet() {
+            int[] sorted = toArray();
+            Arrays.sort(sorted);
+            int distinct = 0;
+            for (int i = 0; i < sorted.length; i++) {
+                if (i == 0 || sorted[i] != sorted[i - 1]) {
+                    sorted[distinct++] = sorted[i];
+                }
+            }
+            return Arrays.copyOf(sorted, distinct);
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.example.keywords.matcher;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+/**
+ * Versioned binary export of the keyword set for maskers outside this service, and the loader that
+ * reads it back.
+ *
+ * <pre>
+ *  0  int    magic "KWEX"
+ *  4  int    format version
+ *  8  long   keyword-set version
+ * 16  int    flags, bit 0: matcher image included
+ * 20  int    keyword count
+ * 24  per keyword, in sorted order:
+ *       varint  UTF-8 bytes shared with the previous keyword
+ *       varint  UTF-8 bytes that follow
+ *       byte[]  those bytes
+ *     only with flag bit 0:
+ *       int     image length
+ *       byte[]  {@link MatcherImage} compiled from the keywords in this order
+ *     int    CRC32C of everything before it
+ * </pre>
+ *
+ * Ints and longs are big-endian; the embedded image keeps its own little-endian layout, so a
+ * loader can hand it to {@link MatcherImage#fromBytes} as is.
+ */
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public final class KeywordExport {
+
+    public static final String MEDIA_TYPE = "application/vnd.keywords.export";
+
+    private static final int MAGIC = 0x4B574558;
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 24;
+    private static final int FLAG_MATCHER_IMAGE = 1;
+
+    private final long keywordSetVersion;
+    // Sorted; a match of the included matcher reports an index into this list
+    private final List<String> keywords;
+    // Null when the export was written without it
+    private final MatcherImage matcherImage;
+
+    /**
+     * @param includeMatcher also compile the keywords and include the image, so loaders need not compile
+     */
+    public static byte[] write(long keywordSetVersion, Collection<String> keywords, boolean includeMatcher) {
+        String[] sorted = keywords.toArray(String[]::new);
+        Arrays.sort(sorted);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(HEADER_SIZE + sorted.length * 8);
+        writeInt(out, MAGIC);
+        writeInt(out, FORMAT_VERSION);
+        writeInt(out, (int) (keywordSetVersion >>> 32));
+        writeInt(out, (int) keywordSetVersion);
+        writeInt(out, includeMatcher ? FLAG_MATCHER_IMAGE : 0);
+        writeInt(out, sorted.length);
+
+        byte[] previous = new byte[0];
+        for (String keyword : sorted) {
+            byte[] utf8 = keyword.getBytes(StandardCharsets.UTF_8);
+            int shared = Arrays.mismatch(previous, utf8);
+            if (shared < 0) {
+                shared = utf8.length;
+            }
+            writeVarint(out, shared);
+            writeVarint(out, utf8.length - shared);
+            out.write(utf8, shared, utf8.length - shared);
+            previous = utf8;
+        }
+        if (includeMatcher) {
+            byte[] image = MatcherImage.toBytes(CompactKeywordMatcher.build(Arrays.asList(sorted)), keywordSetVersion);
+            writeInt(out, image.length);
+            out.write(image, 0, image.length);
+        }
+
+        CRC32C crc = new CRC32C();
+        crc.update(out.toByteArray());
+        writeInt(out, (int) crc.getValue());
+        return out.toByteArray();
+    }
+
+    /**
+     * Reads an export back, verifying its checksum first.
+     *
+     * @throws IOException if the stream cannot be read or does not hold a valid export
+     */
+    public static KeywordExport read(InputStream in) throws IOException {
+        return read(in.readAllBytes());
+    }
+
+    public static KeywordExport read(byte[] bytes) throws IOException {
+        if (bytes.length < HEADER_SIZE + Integer.BYTES) {
+            throw new IOException("Invalid keyword export size: " + bytes.length);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT_VERSION) {
+            throw new IOException("Not a keyword export or unsupported format");
+        }
+        int crcOffset = bytes.length - Integer.BYTES;
+        CRC32C crc = new CRC32C();
+        crc.update(bytes, 0, crcOffset);
+        if (buffer.getInt(crcOffset) != (int) crc.getValue()) {
+            throw new IOException("Keyword export checksum mismatch");
+        }
+
+        try {
+            long keywordSetVersion = buffer.getLong(8);
+            boolean hasImage = (buffer.getInt(16) & FLAG_MATCHER_IMAGE) != 0;
+            int count = buffer.getInt(20);
+            // Every keyword takes at least two bytes, which bounds a corrupt count before allocating
+            if (count < 0 || count > (crcOffset - HEADER_SIZE) / 2) {
+                throw new IOException("Invalid keyword count in export: " + count);
+            }
+            buffer.position(HEADER_SIZE).limit(crcOffset);
+
+            List<String> keywords = new ArrayList<>(count);
+            byte[] previous = new byte[0];
+            for (int i = 0; i < count; i++) {
+                int shared = readVarint(buffer);
+                int length = readVarint(buffer);
+                if (shared < 0 || length < 0 || shared > previous.length || length > buffer.remaining()) {
+                    throw new IOException("Keyword export is truncated at keyword " + i);
+                }
+                byte[] utf8 = Arrays.copyOf(previous, shared + length);
+                buffer.get(utf8, shared, length);
+                keywords.add(new String(utf8, StandardCharsets.UTF_8));
+                previous = utf8;
+            }
+
+            MatcherImage image = null;
+            if (hasImage) {
+                int length = buffer.getInt();
+                if (length < 0 || length != buffer.remaining()) {
+                    throw new IOException("Keyword export matcher image is truncated");
+                }
+                image = MatcherImage.fromBytes(Arrays.copyOfRange(bytes, buffer.position(), crcOffset));
+                if (image.getMatcher().keywordCount() != count) {
+                    throw new IOException("Keyword export matcher image does not match its keywords");
+                }
+            } else if (buffer.hasRemaining()) {
+                throw new IOException("Keyword export has trailing bytes");
+            }
+            return new KeywordExport(keywordSetVersion, List.copyOf(keywords), image);
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Keyword export is truncated", e);
+        }
+    }
+
+    private static void writeInt(ByteArrayOutputStream out, int value) {
+        out.write(value >>> 24);
+        out.write(value >>> 16);
+        out.write(value >>> 8);
+        out.write(value);
+    }
+
+    // Seven bits per byte, low bits first; lengths of keywords almost always fit in one byte
+    private static void writeVarint(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    private static int readVarint(ByteBuffer buffer) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            byte b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IOException("Invalid length in keyword export");
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.keywords.matcher;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Match count per keyword index of one snapshot, cheap enough to bump on every match.
+ *
+ * <p>A keyword gets its {@link LongAdder} on its first match, so a snapshot costs one reference per
+ * keyword plus an adder per keyword that actually matched; the adder only grows cells for the
+ * keywords that threads keep hitting at the same time.
+ */
+public final class KeywordHitCounters {
+
+    private final AtomicReferenceArray<LongAdder> counters;
+
+    public KeywordHitCounters(int keywordCount) {
+        counters = new AtomicReferenceArray<>(keywordCount);
+    }
+
+    public void increment(int keywordIndex) {
+        LongAdder counter = counters.get(keywordIndex);
+        if (counter == null) {
+            LongAdder created = new LongAdder();
+            counter = counters.compareAndExchange(keywordIndex, null, created);
+            if (counter == null) {
+                counter = created;
+            }
+        }
+        counter.increment();
+    }
+
+    /**
+     * Takes the counts gathered since the last drain and resets them; increments made while
+     * draining land in either this result or the next one, never both.
+     */
+    public long[] drain() {
+        long[] counts = new long[counters.length()];
+        for (int i = 0; i < counts.length; i++) {
+            LongAdder counter = counters.get(i);
+            if (counter != null) {
+                counts[i] = counter.sumThenReset();
+            }
+        }
+        return counts;
+    }
+}
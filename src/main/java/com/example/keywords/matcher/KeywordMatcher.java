@@ -0,0 +1,181 @@
+package com.example.keywords.matcher;
+
+/**
+ * Trie over case-folded keywords, or a deterministic automaton when the keywords include
+ * {@link KeywordPattern patterns}. States are plain ints so that the scanning loop does not
+ * depend on how the trie is laid out in memory.
+ */
+public interface KeywordMatcher {
+
+    int ROOT = 0;
+    int NO_STATE = -1;
+    // Label of the edge a word char takes when it has no edge of its own; used by keyword patterns
+    char WILDCARD = '\uFFFF';
+
+    /**
+     * @param c an already normalized character, see {@link KeywordMatchers#normalize(char)}
+     * @return the next state, or {@link #NO_STATE} when no keyword continues with {@code c}
+     */
+    int transition(int state, char c);
+
+    /**
+     * @return index of the keyword ending in {@code state}, or {@code -1}
+     */
+    int keywordIndex(int state);
+
+    int keywordCount();
+
+    int stateCount();
+
+    /**
+     * Calls {@code visitor} for every edge leaving {@code state}, in no particular order, including
+     * a {@link #WILDCARD} edge.
+     */
+    void forEachTransition(int state, TransitionVisitor visitor);
+
+    @FunctionalInterface
+    interface TransitionVisitor {
+        void visit(char label, int target);
+    }
+
+    /**
+     * Reports leftmost-longest, non-overlapping whole-word matches. A keyword edge made of a word
+     * character must sit on a word boundary; an edge made of any other character needs none.
+     * A space inside a phrase matches any run of whitespace, and the match covers the whole run.
+     */
+    default void scan(CharSequence text, MatchHandler handler) {
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            char c = text.charAt(i);
+            if (i > 0 && KeywordMatchers.isWordChar(c) && KeywordMatchers.isWordChar(text.charAt(i - 1))) {
+                i++;
+                continue;
+            }
+
+            int matchEnd = -1;
+            int matchKeyword = -1;
+            int state = ROOT;
+            for (int j = i; j < length; j++) {
+                char normalized = KeywordMatchers.normalize(text.charAt(j));
+                // The rest of a whitespace run stays on the space edge its first char took
+                if (normalized == ' ' && j > i && KeywordMatchers.isSpace(text.charAt(j - 1))) {
+                    continue;
+                }
+                state = transition(state, normalized);
+                if (state == NO_STATE) {
+                    break;
+                }
+                int keyword = keywordIndex(state);
+                if (keyword >= 0 && KeywordMatchers.isEndBoundary(text, j)) {
+                    matchEnd = j + 1;
+                    matchKeyword = keyword;
+                }
+            }
+
+            if (matchKeyword < 0) {
+                i++;
+            } else if (handler.onMatch(i, matchEnd, matchKeyword)) {
+                i = matchEnd;
+            } else {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Same matches as {@link #scan} over the decoded text, but reads UTF-8 bytes directly and reports
+     * byte offsets.
+     */
+    default void scanUtf8(byte[] utf8, int length, MatchHandler handler) {
+        scanUtf8(utf8, length, null, handler);
+    }
+
+    /**
+     * As {@link #scanUtf8(byte[], int, MatchHandler)}, trying matches only where {@code filter},
+     * if not null, reports a candidate.
+     */
+    default void scanUtf8(byte[] utf8, int length, CandidateFilter filter, MatchHandler handler) {
+        boolean previousIsWord = false;
+        int i = 0;
+        while (i < length) {
+            if (filter != null) {
+                int candidate = filter.next(utf8, i, length);
+                if (candidate >= length) {
+                    return;
+                }
+                if (candidate != i) {
+                    i = candidate;
+                    previousIsWord = Utf8.isWordBefore(utf8, i, length);
+                }
+            }
+            int width = Utf8.width(utf8, i, length);
+            int codePoint = Utf8.codePoint(utf8, i, width);
+            boolean isWord = Utf8.isWordCodePoint(codePoint);
+            if (previousIsWord && isWord) {
+                i += width;
+                continue;
+            }
+
+            int matchEnd = -1;
+            int matchKeyword = -1;
+            boolean matchEndsInWord = false;
+            int state = ROOT;
+            int j = i;
+            int c = codePoint;
+            int w = width;
+            boolean inSpaceRun = false;
+            while (true) {
+                int normalized = c < Character.MIN_SUPPLEMENTARY_CODE_POINT ? KeywordMatchers.normalize((char) c) : c;
+                // As in scan, the rest of a whitespace run stays on the space edge
+                if (normalized != ' ' || !inSpaceRun) {
+                    state = transitionCodePoint(state, normalized);
+                    if (state == NO_STATE) {
+                        break;
+                    }
+                    inSpaceRun = normalized == ' ';
+                }
+                int next = j + w;
+                int keyword = keywordIndex(state);
+                boolean lastIsWord = Utf8.isWordCodePoint(c);
+                if (next < length) {
+                    int nextWidth = Utf8.width(utf8, next, length);
+                    int nextCodePoint = Utf8.codePoint(utf8, next, nextWidth);
+                    if (keyword >= 0 && (!lastIsWord || !Utf8.isWordCodePoint(nextCodePoint))) {
+                        matchEnd = next;
+                        matchKeyword = keyword;
+                        matchEndsInWord = lastIsWord;
+                    }
+                    j = next;
+                    c = nextCodePoint;
+                    w = nextWidth;
+                } else {
+                    if (keyword >= 0) {
+                        matchEnd = next;
+                        matchKeyword = keyword;
+                    }
+                    break;
+                }
+            }
+
+            if (matchKeyword < 0) {
+                previousIsWord = isWord;
+                i += width;
+            } else if (handler.onMatch(i, matchEnd, matchKeyword)) {
+                previousIsWord = matchEndsInWord;
+                i = matchEnd;
+            } else {
+                return;
+            }
+        }
+    }
+
+    // Feeds a whole normalized code point, as a surrogate pair when it is outside the BMP
+    private int transitionCodePoint(int state, int codePoint) {
+        if (codePoint < Character.MIN_SUPPLEMENTARY_CODE_POINT) {
+            return transition(state, (char) codePoint);
+        }
+        state = transition(state, Character.highSurrogate(codePoint));
+        return state == NO_STATE ? NO_STATE : transition(state, Character.lowSurrogate(codePoint));
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.keywords.matcher;
+
+import java.util.List;
+
+public final class KeywordMatchers {
+
+    // Folded form of every UTF-16 unit, filled once so the scan loop never calls into Character
+    private static final char[] FOLD = new char[Character.MAX_VALUE + 1];
+    // FOLD with every whitespace char replaced by a plain space
+    private static final char[] NORMAL = new char[Character.MAX_VALUE + 1];
+    // One bit per UTF-16 unit
+    private static final long[] WORD_CHARS = new long[(Character.MAX_VALUE + 1) >>> 6];
+    private static final long[] SPACE_CHARS = new long[(Character.MAX_VALUE + 1) >>> 6];
+
+    static {
+        for (int c = 0; c <= Character.MAX_VALUE; c++) {
+            // Upper of lower puts every case variant in one class regardless of the default locale,
+            // e.g. K, k and KELVIN SIGN, or I, i, DOTTED CAPITAL I and DOTLESS SMALL I
+            FOLD[c] = Character.toUpperCase(Character.toLowerCase((char) c));
+            if (Character.isLetterOrDigit(c) || c == '_') {
+                WORD_CHARS[c >>> 6] |= 1L << c;
+            }
+            // Includes no-break spaces, which Character.isWhitespace leaves out
+            if (Character.isWhitespace(c) || Character.isSpaceChar(c)) {
+                SPACE_CHARS[c >>> 6] |= 1L << c;
+                NORMAL[c] = ' ';
+            } else {
+                NORMAL[c] = FOLD[c];
+            }
+        }
+    }
+
+    private KeywordMatchers() {
+    }
+
+    public static KeywordMatcher compile(MatcherType type, List<String> keywords) {
+        return switch (type) {
+            case COMPACT -> CompactKeywordMatcher.build(keywords);
+            case TRIE -> TrieKeywordMatcher.build(keywords);
+        };
+    }
+
+    /**
+     * Runs the pattern compilation of {@link #compile} without keeping the result, so that a write
+     * which would leave the keyword set impossible to compile can be refused before it is stored.
+     * Sets without patterns always compile.
+     *
+     * @param maxStates automaton states allowed, at most the limit of every compile
+     * @throws IllegalArgumentException if the patterns expand to more than {@code maxStates} states
+     */
+    public static void checkCompiles(List<String> keywords, int maxStates) {
+        if (KeywordAutomaton.hasPatterns(keywords)) {
+            KeywordAutomaton.build(keywords, maxStates);
+        }
+    }
+
+    /**
+     * Builds the pre-filter for {@link KeywordMatcher#scanUtf8(byte[], int, CandidateFilter, MatchHandler)}.
+     * The vectorized form is used only when asked for and when the JVM runs with
+     * {@code --add-modules jdk.incubator.vector}; otherwise the scalar table is returned.
+     */
+    public static CandidateFilter candidateFilter(KeywordMatcher matcher, boolean vectorized) {
+        PairCandidateFilter exact = new PairCandidateFilter(matcher);
+        if (vectorized && isVectorApiAvailable() && VectorCandidateFilter.isSupported()) {
+            return new VectorCandidateFilter(exact);
+        }
+        return exact;
+    }
+
+    public static boolean isVectorApiAvailable() {
+        return ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+    }
+
+    // Simple (length-preserving) case folding; ASCII never touches the table
+    public static char fold(char c) {
+        if (c < 0x80) {
+            return c >= 'a' && c <= 'z' ? (char) (c - ('a' - 'A')) : c;
+        }
+        return FOLD[c];
+    }
+
+    // Folds per char, unlike String.toUpperCase which can change the length (e.g. for sharp s)
+    public static String fold(String keyword) {
+        char[] chars = keyword.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = fold(chars[i]);
+        }
+        return new String(chars);
+    }
+
+    /**
+     * The form the trie is keyed by: {@link #fold(char)}, except that every whitespace char becomes
+     * a plain space. A single table load; an ASCII branch here made the UTF-8 scan loop slower.
+     */
+    public static char normalize(char c) {
+        return NORMAL[c];
+    }
+
+    // Trims, collapses each whitespace run to one space and folds, so a phrase matches however it is spaced
+    public static String normalize(String keyword) {
+        return fold(normalizeWhitespace(keyword));
+    }
+
+    public static String normalizeWhitespace(String keyword) {
+        StringBuilder out = new StringBuilder(keyword.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < keyword.length(); i++) {
+            char c = keyword.charAt(i);
+            if (isSpace(c)) {
+                pendingSpace = out.length() > 0;
+            } else {
+                if (pendingSpace) {
+                    out.append(' ');
+                    pendingSpace = false;
+                }
+                out.append(c);
+            }
+        }
+        return out.toString();
+    }
+
+    public static boolean isSpace(char c) {
+        if (c < 0x80) {
+            return c == ' ' || (c >= '\t' && c <= '\r') || (c >= 0x1C && c <= 0x1F);
+        }
+        return (SPACE_CHARS[c >>> 6] & (1L << c)) != 0;
+    }
+
+    // Letters and digits of any script plus underscore, so accented words get boundaries too
+    public static boolean isWordChar(char c) {
+        if (c < 0x80) {
+            return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_';
+        }
+        return (WORD_CHARS[c >>> 6] & (1L << c)) != 0;
+    }
+
+    static boolean isEndBoundary(CharSequence text, int last) {
+        return last + 1 == text.length()
+                || !isWordChar(text.charAt(last))
+                || !isWordChar(text.charAt(last + 1));
+    }
+}
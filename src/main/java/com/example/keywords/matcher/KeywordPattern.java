@@ -0,0 +1,156 @@
+package com.example.keywords.matcher;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Keyword in the restricted pattern syntax, with whitespace normalized and every char folded.
+ *
+ * <ul>
+ *   <li>{@code ?} matches one word char</li>
+ *   <li>{@code [abc]} and {@code [a-f]} match one char of the class; a {@code -} first or last is literal</li>
+ *   <li>{@code *} right after a word char, {@code ?} or class of word chars, at the end of a word,
+ *       matches the rest of that word, so {@code SYSTBL*} covers {@code SYSTBLDEF} and {@code SYSTBL}</li>
+ * </ul>
+ *
+ * Any other {@code *} is an ordinary char, as in {@code SELECT * FROM}. Patterns are compiled into
+ * the same automaton as plain keywords, see {@link KeywordAutomaton}.
+ */
+public final class KeywordPattern {
+
+    static final int MAX_CLASS_SIZE = 1024;
+
+    enum Kind {
+        // One of chars; a plain keyword char is a class of one
+        CHARS,
+        ANY_WORD_CHAR,
+        REST_OF_WORD
+    }
+
+    record Element(Kind kind, char[] chars) {
+    }
+
+    private static final Element ANY_WORD_CHAR = new Element(Kind.ANY_WORD_CHAR, null);
+    private static final Element REST_OF_WORD = new Element(Kind.REST_OF_WORD, null);
+
+    private final List<Element> elements;
+    private final boolean literal;
+
+    private KeywordPattern(List<Element> elements, boolean literal) {
+        this.elements = elements;
+        this.literal = literal;
+    }
+
+    /**
+     * @throws IllegalArgumentException if a character class is unclosed, empty, reversed or too large
+     */
+    public static KeywordPattern parse(String keyword) {
+        String text = KeywordMatchers.normalizeWhitespace(keyword);
+        if (text.indexOf(KeywordMatcher.WILDCARD) >= 0) {
+            throw new IllegalArgumentException("Keyword contains the reserved char U+FFFF: " + keyword);
+        }
+        List<Element> elements = new ArrayList<>(text.length());
+        boolean literal = true;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '?') {
+                elements.add(ANY_WORD_CHAR);
+                literal = false;
+            } else if (c == '[') {
+                int close = text.indexOf(']', i + 1);
+                if (close < 0) {
+                    throw new IllegalArgumentException("Unclosed character class in keyword: " + keyword);
+                }
+                elements.add(new Element(Kind.CHARS, parseClass(keyword, text.substring(i + 1, close))));
+                literal = false;
+                i = close;
+            } else if (c == '*' && endsWord(text, i + 1) && !elements.isEmpty()
+                    && isWordElement(elements.get(elements.size() - 1))) {
+                elements.add(REST_OF_WORD);
+                literal = false;
+            } else {
+                elements.add(new Element(Kind.CHARS, new char[]{KeywordMatchers.normalize(c)}));
+            }
+        }
+        return new KeywordPattern(List.copyOf(elements), literal);
+    }
+
+    // Every char taken as itself, the way keywords were matched before patterns existed
+    static KeywordPattern literal(String keyword) {
+        String normalized = KeywordMatchers.normalize(keyword);
+        List<Element> elements = new ArrayList<>(normalized.length());
+        for (int i = 0; i < normalized.length(); i++) {
+            elements.add(new Element(Kind.CHARS, new char[]{normalized.charAt(i)}));
+        }
+        return new KeywordPattern(List.copyOf(elements), true);
+    }
+
+    // A quick check that lets plain keyword sets skip parsing altogether
+    static boolean mayContainPattern(String keyword) {
+        return keyword.indexOf('?') >= 0 || keyword.indexOf('[') >= 0 || keyword.indexOf('*') >= 0;
+    }
+
+    public boolean isLiteral() {
+        return literal;
+    }
+
+    List<Element> elements() {
+        return elements;
+    }
+
+    private static boolean endsWord(String text, int next) {
+        return next == text.length() || text.charAt(next) == ' ';
+    }
+
+    private static boolean isWordElement(Element element) {
+        if (element.kind() == Kind.ANY_WORD_CHAR) {
+            return true;
+        }
+        if (element.kind() != Kind.CHARS) {
+            return false;
+        }
+        for (char c : element.chars()) {
+            if (!KeywordMatchers.isWordChar(c)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static char[] parseClass(String keyword, String body) {
+        if (body.isEmpty()) {
+            throw new IllegalArgumentException("Empty character class in keyword: " + keyword);
+        }
+        StringBuilder chars = new StringBuilder();
+        for (int i = 0; i < body.length(); i++) {
+            char from = body.charAt(i);
+            if (i + 2 < body.length() && body.charAt(i + 1) == '-') {
+                char to = body.charAt(i + 2);
+                if (to < from) {
+                    throw new IllegalArgumentException(
+                            "Character class range " + from + "-" + to + " is reversed in keyword: " + keyword);
+                }
+                if (to - from >= MAX_CLASS_SIZE) {
+                    throw new IllegalArgumentException("Character class is larger than " + MAX_CLASS_SIZE
+                            + " chars in keyword: " + keyword);
+                }
+                for (int c = from; c <= to; c++) {
+                    chars.append(KeywordMatchers.normalize((char) c));
+                }
+                i += 2;
+            } else {
+                chars.append(KeywordMatchers.normalize(from));
+            }
+        }
+        char[] sorted = chars.toString().toCharArray();
+        Arrays.sort(sorted);
+        int distinct = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (i == 0 || sorted[i] != sorted[i - 1]) {
+                sorted[distinct++] = sorted[i];
+            }
+        }
+        return Arrays.copyOf(sorted, distinct);
+    }
+}
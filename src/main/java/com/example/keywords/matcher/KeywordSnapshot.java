@@ -0,0 +1,98 @@
+package com.example.keywords.matcher;
+
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable, compiled view of the keyword table used by the masking path.
+ */
+@Getter
+public final class KeywordSnapshot {
+
+    // Keyword-set version the matcher was compiled from, see KeywordService#getKeywordSetVersion
+    private final long version;
+    private final KeywordMatcher matcher;
+    private final Instant builtAt;
+    private final Duration buildDuration;
+    // Pre-filter for UTF-8 input built from the same matcher, null when disabled
+    private final CandidateFilter candidateFilter;
+    // No-match test for short String input built from the same matcher, null when disabled
+    private final TokenBloomFilter tokenFilter;
+    // Matcher for disguised keywords built from the same words, null when disabled
+    private final FuzzyKeywordIndex fuzzyIndex;
+    // Database id of each keyword index, null when they could not be read alongside the matcher
+    @Getter(AccessLevel.NONE)
+    private final long[] keywordIds;
+    // Matches per keyword index since the statistics were last flushed, null when disabled
+    private final KeywordHitCounters hitCounters;
+    // Words the matcher was compiled from, by keyword index; null when it was mapped from an image
+    private final List<String> words;
+    @Getter(AccessLevel.NONE)
+    private final boolean patterns;
+
+    public KeywordSnapshot(long version, KeywordMatcher matcher, Instant builtAt, Duration buildDuration) {
+        this(version, matcher, builtAt, buildDuration, null, null);
+    }
+
+    public KeywordSnapshot(long version, KeywordMatcher matcher, Instant builtAt, Duration buildDuration,
+                           CandidateFilter candidateFilter, TokenBloomFilter tokenFilter) {
+        this(version, matcher, builtAt, buildDuration, candidateFilter, tokenFilter, null, null, null, null);
+    }
+
+    @Builder
+    private KeywordSnapshot(long version, KeywordMatcher matcher, Instant builtAt, Duration buildDuration,
+                            CandidateFilter candidateFilter, TokenBloomFilter tokenFilter,
+                            FuzzyKeywordIndex fuzzyIndex, long[] keywordIds, KeywordHitCounters hitCounters,
+                            List<String> words) {
+        this.version = version;
+        this.matcher = matcher;
+        this.builtAt = builtAt;
+        this.buildDuration = buildDuration;
+        this.candidateFilter = candidateFilter;
+        this.tokenFilter = tokenFilter;
+        this.fuzzyIndex = fuzzyIndex;
+        this.keywordIds = keywordIds;
+        this.hitCounters = hitCounters;
+        this.words = words;
+        // Only the COMPACT layout is mapped from an image, and it has edge targets exactly for patterns
+        this.patterns = words != null ? KeywordAutomaton.hasPatterns(words)
+                : matcher instanceof FlatKeywordMatcher flat && flat.hasEdgeTargets();
+    }
+
+    public boolean isEmpty() {
+        return matcher.keywordCount() == 0;
+    }
+
+    public int size() {
+        return matcher.keywordCount();
+    }
+
+    // True when the matcher is an automaton compiled from patterns rather than a plain trie
+    public boolean hasPatterns() {
+        return patterns;
+    }
+
+    // Id of the keyword a match reports, or null if the snapshot has no ids
+    public Long keywordId(int keywordIndex) {
+        return keywordIds == null ? null : keywordIds[keywordIndex];
+    }
+
+    // Adds the hits counted since the last drain to the given totals by keyword id and resets them
+    public void drainHits(Map<Long, Long> hits) {
+        if (hitCounters == null || keywordIds == null) {
+            return;
+        }
+        long[] counts = hitCounters.drain();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] != 0) {
+                hits.merge(keywordIds[i], counts[i], Long::sum);
+            }
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.keywords.matcher;
+
+import java.nio.CharBuffer;
+import java.nio.IntBuffer;
+
+/**
+ * {@link CompactKeywordMatcher} layout read in place from a memory-mapped {@link MatcherImage}.
+ * Nothing is copied to the heap; the OS pages states in as they are first visited.
+ */
+final class MappedKeywordMatcher extends FlatKeywordMatcher {
+
+    private final IntBuffer firstEdge;
+    private final CharBuffer edgeLabels;
+    // Null for a trie, where edge e leads to state e + 1
+    private final IntBuffer edgeTargets;
+    private final IntBuffer keywordIndexes;
+
+    MappedKeywordMatcher(IntBuffer firstEdge, CharBuffer edgeLabels, IntBuffer edgeTargets, IntBuffer keywordIndexes,
+                         int keywordCount) {
+        super(edgeTargets != null, keywordCount);
+        this.firstEdge = firstEdge;
+        this.edgeLabels = edgeLabels;
+        this.edgeTargets = edgeTargets;
+        this.keywordIndexes = keywordIndexes;
+        indexRoot();
+    }
+
+    @Override
+    int firstEdge(int state) {
+        return firstEdge.get(state);
+    }
+
+    @Override
+    char edgeLabel(int edge) {
+        return edgeLabels.get(edge);
+    }
+
+    @Override
+    int edgeTarget(int edge) {
+        return edgeTargets.get(edge);
+    }
+
+    @Override
+    public int keywordIndex(int state) {
+        return keywordIndexes.get(state);
+    }
+
+    @Override
+    public int stateCount() {
+        return keywordIndexes.limit();
+    }
+}
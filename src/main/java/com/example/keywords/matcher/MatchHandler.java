@@ -0,0 +1,16 @@
+package com.example.keywords.matcher;
+
+/**
+ * Receives keyword matches produced by {@link KeywordMatcher#scan(CharSequence, MatchHandler)}.
+ */
+@FunctionalInterface
+public interface MatchHandler {
+
+    /**
+     * @param start        index of the first matched character
+     * @param end          index after the last matched character
+     * @param keywordIndex position of the matched keyword in the list the matcher was built from
+     * @return {@code true} to continue scanning, {@code false} to stop
+     */
+    boolean onMatch(int start, int end, int keywordIndex);
+}
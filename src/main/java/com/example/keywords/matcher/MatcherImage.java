@@ -0,0 +1,194 @@
+package com.example.keywords.matcher;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/**
+ * Versioned binary file holding a {@link CompactKeywordMatcher}, loaded back with memory mapping
+ * or, when it arrives over the network, straight from a byte array.
+ *
+ * <pre>
+ *  0  int   magic "KWMI"
+ *  4  int   format version
+ *  8  long  keyword-set version
+ * 16  int   keyword count
+ * 20  int   state count
+ * 24  int   edge count
+ * 28  int   flags, bit 0: explicit edge targets (keyword patterns)
+ * 32  int   CRC32C of the payload
+ * 36  int   CRC32C of bytes 0..35
+ * 40  int[] first edge per state (state count + 1)
+ *     int[] keyword index per state (state count)
+ *     int[] target per edge (edge count), only with flag bit 0
+ *     char[] edge labels (edge count)
+ * </pre>
+ *
+ * All values are little-endian.
+ */
+@Getter
+@RequiredArgsConstructor
+public final class MatcherImage {
+
+    private static final int MAGIC = 0x494D574B;
+    // 2: edge labels use Unicode simple case folding instead of ASCII-only folding
+    // 3: keywords are stored with normalized whitespace
+    // 4: edge count, flags and optional edge targets for keyword patterns
+    private static final int FORMAT_VERSION = 4;
+    private static final int HEADER_SIZE = 40;
+    private static final int PAYLOAD_CRC_OFFSET = 32;
+    private static final int HEADER_CRC_OFFSET = 36;
+    private static final int FLAG_EDGE_TARGETS = 1;
+
+    private final long keywordSetVersion;
+    private final KeywordMatcher matcher;
+
+    /**
+     * Writes the image next to {@code path} and moves it into place, so readers never see a partial file.
+     */
+    public static void write(Path path, CompactKeywordMatcher matcher, long keywordSetVersion) throws IOException {
+        Path directory = path.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size(matcher));
+                encode(buffer, matcher, keywordSetVersion);
+                buffer.force();
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    // The same image in memory, for sending it elsewhere rather than mapping it here
+    public static byte[] toBytes(CompactKeywordMatcher matcher, long keywordSetVersion) {
+        byte[] bytes = new byte[Math.toIntExact(size(matcher))];
+        encode(ByteBuffer.wrap(bytes), matcher, keywordSetVersion);
+        return bytes;
+    }
+
+    /**
+     * Maps an image without copying it to the heap. The header checksum is always verified; verifying
+     * the payload checksum reads the whole file once, which gives up lazy page-in.
+     *
+     * @throws IOException if the file cannot be read or is not a valid image
+     */
+    public static MatcherImage map(Path path, boolean verifyPayload) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE || size > Integer.MAX_VALUE) {
+                throw new IOException("Invalid matcher image size: " + size);
+            }
+            return read(channel.map(FileChannel.MapMode.READ_ONLY, 0, size), path.toString(), verifyPayload);
+        }
+    }
+
+    /**
+     * Reads an image produced by {@link #toBytes}, verifying both checksums. The matcher works on
+     * {@code bytes} directly, so they must not be changed afterwards.
+     *
+     * @throws IOException if the bytes are not a valid image
+     */
+    public static MatcherImage fromBytes(byte[] bytes) throws IOException {
+        if (bytes.length < HEADER_SIZE) {
+            throw new IOException("Invalid matcher image size: " + bytes.length);
+        }
+        return read(ByteBuffer.wrap(bytes), "byte array", true);
+    }
+
+    private static long size(CompactKeywordMatcher matcher) {
+        return HEADER_SIZE + payloadSize(matcher.stateCount(), matcher.edgeLabels().length, matcher.edgeTargets() != null);
+    }
+
+    private static void encode(ByteBuffer buffer, CompactKeywordMatcher matcher, long keywordSetVersion) {
+        int states = matcher.stateCount();
+        int edges = matcher.edgeLabels().length;
+        int[] targets = matcher.edgeTargets();
+        int payloadSize = (int) payloadSize(states, edges, targets != null);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+        ByteBuffer payload = buffer.slice(HEADER_SIZE, payloadSize).order(ByteOrder.LITTLE_ENDIAN);
+        payload.asIntBuffer().put(matcher.firstEdge()).put(matcher.keywordIndexes())
+                .put(targets != null ? targets : new int[0]);
+        payload.position((int) labelsOffset(states, edges, targets != null));
+        payload.asCharBuffer().put(matcher.edgeLabels());
+
+        buffer.putInt(0, MAGIC)
+                .putInt(4, FORMAT_VERSION)
+                .putLong(8, keywordSetVersion)
+                .putInt(16, matcher.keywordCount())
+                .putInt(20, states)
+                .putInt(24, edges)
+                .putInt(28, targets != null ? FLAG_EDGE_TARGETS : 0)
+                .putInt(PAYLOAD_CRC_OFFSET, crc(buffer.slice(HEADER_SIZE, payloadSize)))
+                .putInt(HEADER_CRC_OFFSET, crc(buffer.slice(0, HEADER_CRC_OFFSET)));
+    }
+
+    private static MatcherImage read(ByteBuffer buffer, String source, boolean verifyPayload) throws IOException {
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        int size = buffer.capacity();
+
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT_VERSION) {
+            throw new IOException("Not a matcher image or unsupported format: " + source);
+        }
+        if (buffer.getInt(HEADER_CRC_OFFSET) != crc(buffer.slice(0, HEADER_CRC_OFFSET))) {
+            throw new IOException("Matcher image header checksum mismatch: " + source);
+        }
+
+        long keywordSetVersion = buffer.getLong(8);
+        int keywordCount = buffer.getInt(16);
+        int states = buffer.getInt(20);
+        int edges = buffer.getInt(24);
+        boolean hasTargets = (buffer.getInt(28) & FLAG_EDGE_TARGETS) != 0;
+        long payloadSize = payloadSize(states, edges, hasTargets);
+        if (states < 1 || edges < 0 || HEADER_SIZE + payloadSize != size) {
+            throw new IOException("Matcher image is truncated: " + source);
+        }
+        ByteBuffer payload = buffer.slice(HEADER_SIZE, (int) payloadSize).order(ByteOrder.LITTLE_ENDIAN);
+        if (verifyPayload && buffer.getInt(PAYLOAD_CRC_OFFSET) != crc(payload.duplicate())) {
+            throw new IOException("Matcher image payload checksum mismatch: " + source);
+        }
+
+        int keywordIndexesOffset = (states + 1) * Integer.BYTES;
+        int targetsOffset = keywordIndexesOffset + states * Integer.BYTES;
+        KeywordMatcher matcher = new MappedKeywordMatcher(
+                ints(payload, 0, states + 1),
+                payload.slice((int) labelsOffset(states, edges, hasTargets), edges * Character.BYTES)
+                        .order(ByteOrder.LITTLE_ENDIAN).asCharBuffer(),
+                hasTargets ? ints(payload, targetsOffset, edges) : null,
+                ints(payload, keywordIndexesOffset, states),
+                keywordCount);
+        return new MatcherImage(keywordSetVersion, matcher);
+    }
+
+    private static long payloadSize(int states, int edges, boolean hasTargets) {
+        return labelsOffset(states, edges, hasTargets) + (long) edges * Character.BYTES;
+    }
+
+    private static long labelsOffset(int states, int edges, boolean hasTargets) {
+        return (2L * states + 1 + (hasTargets ? edges : 0)) * Integer.BYTES;
+    }
+
+    private static IntBuffer ints(ByteBuffer payload, int offset, int count) {
+        return payload.slice(offset, count * Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+    }
+
+    private static int crc(ByteBuffer bytes) {
+        CRC32C crc = new CRC32C();
+        crc.update(bytes);
+        return (int) crc.getValue();
+    }
+}
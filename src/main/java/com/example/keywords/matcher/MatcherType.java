@@ -0,0 +1,8 @@
+package com.example.keywords.matcher;
+
+public enum MatcherType {
+    // Flat primitive arrays, roughly ten bytes per trie state
+    COMPACT,
+    // One object and one HashMap per trie state
+    TRIE
+}
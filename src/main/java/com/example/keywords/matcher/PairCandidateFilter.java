@@ -0,0 +1,127 @@
+package com.example.keywords.matcher;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Exact table of the first two UTF-8 bytes a match can start with, including every case variant
+ * the matcher folds together. A position inside a word is never a candidate.
+ */
+final class PairCandidateFilter implements CandidateFilter {
+
+    // One bit per (first byte << 8 | second byte)
+    private final long[] pairs = new long[(1 << 16) >>> 6];
+    // First bytes of any pair, for a candidate in the last position
+    private final long[] firsts = new long[256 >>> 6];
+
+    PairCandidateFilter(KeywordMatcher matcher) {
+        // Second-byte sets per state after the first char, shared by the case variants of that char
+        Map<Integer, long[]> secondsByState = new HashMap<>();
+        for (int c = 0; c <= Character.MAX_VALUE; c++) {
+            char ch = (char) c;
+            if (Character.isSurrogate(ch)) {
+                continue;
+            }
+            int state = matcher.transition(KeywordMatcher.ROOT, KeywordMatchers.normalize(ch));
+            if (state == KeywordMatcher.NO_STATE) {
+                continue;
+            }
+            if (ch >= 0x80) {
+                // Both bytes belong to the first char itself
+                add(firstByte(ch), secondByte(ch));
+                continue;
+            }
+            long[] seconds = secondsByState.computeIfAbsent(state, s -> secondBytes(matcher, s));
+            for (int b = 0; b < 256; b++) {
+                if ((seconds[b >>> 6] & (1L << b)) != 0) {
+                    add(c, b);
+                }
+            }
+        }
+        // Chars outside the BMP enter the trie through their high surrogate
+        for (char high = Character.MIN_HIGH_SURROGATE; high <= Character.MAX_HIGH_SURROGATE; high++) {
+            if (matcher.transition(KeywordMatcher.ROOT, high) != KeywordMatcher.NO_STATE) {
+                addAllSupplementaryLeads();
+                break;
+            }
+        }
+    }
+
+    boolean isCandidate(byte[] utf8, int i, int length) {
+        int b = utf8[i] & 0xFF;
+        if (i > 0 && Utf8.isAsciiWordByte(b) && Utf8.isAsciiWordByte(utf8[i - 1] & 0xFF)) {
+            return false;
+        }
+        if (i + 1 == length) {
+            return (firsts[b >>> 6] & (1L << b)) != 0;
+        }
+        int pair = b << 8 | (utf8[i + 1] & 0xFF);
+        return (pairs[pair >>> 6] & (1L << pair)) != 0;
+    }
+
+    @Override
+    public int next(byte[] utf8, int from, int length) {
+        for (int i = from; i < length; i++) {
+            if (isCandidate(utf8, i, length)) {
+                return i;
+            }
+        }
+        return length;
+    }
+
+    boolean contains(int first, int second) {
+        int pair = first << 8 | second;
+        return (pairs[pair >>> 6] & (1L << pair)) != 0;
+    }
+
+    private static long[] secondBytes(KeywordMatcher matcher, int state) {
+        long[] seconds = new long[256 >>> 6];
+        if (matcher.keywordIndex(state) >= 0) {
+            // A one-char keyword can be followed by anything
+            Arrays.fill(seconds, -1L);
+            return seconds;
+        }
+        for (int c = 0; c <= Character.MAX_VALUE; c++) {
+            char ch = (char) c;
+            if (Character.isLowSurrogate(ch)
+                    || matcher.transition(state, KeywordMatchers.normalize(ch)) == KeywordMatcher.NO_STATE) {
+                continue;
+            }
+            if (Character.isHighSurrogate(ch)) {
+                for (int lead = 0xF0; lead <= 0xF4; lead++) {
+                    seconds[lead >>> 6] |= 1L << lead;
+                }
+            } else {
+                int b = firstByte(ch);
+                seconds[b >>> 6] |= 1L << b;
+            }
+        }
+        return seconds;
+    }
+
+    private void addAllSupplementaryLeads() {
+        for (int lead = 0xF0; lead <= 0xF4; lead++) {
+            for (int continuation = 0x80; continuation <= 0xBF; continuation++) {
+                add(lead, continuation);
+            }
+        }
+    }
+
+    private void add(int first, int second) {
+        int pair = first << 8 | second;
+        pairs[pair >>> 6] |= 1L << pair;
+        firsts[first >>> 6] |= 1L << first;
+    }
+
+    private static int firstByte(char c) {
+        if (c < 0x80) {
+            return c;
+        }
+        return c < 0x800 ? 0xC0 | c >>> 6 : 0xE0 | c >>> 12;
+    }
+
+    private static int secondByte(char c) {
+        return c < 0x800 ? 0x80 | (c & 0x3F) : 0x80 | (c >>> 6 & 0x3F);
+    }
+}
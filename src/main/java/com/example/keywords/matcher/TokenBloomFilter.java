@@ -0,0 +1,197 @@
+package com.example.keywords.matcher;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Blocked Bloom filter over the first token (leading run of word chars) of every keyword. A keyword
+ * that starts with a word char can only match where a whole input token equals its first token, so
+ * text none of whose tokens pass cannot contain a match. All probes for a token fall in one
+ * {@code long}, so a check costs one memory access.
+ *
+ * <p>Keywords that start with a non-word char are covered by a set of their first chars instead.
+ * Where a keyword pattern has a wildcard inside its first token, the filter holds the prefix before
+ * the wildcard and checks input tokens against prefixes of that length.
+ */
+public final class TokenBloomFilter {
+
+    private static final int BITS_PER_TOKEN = 16;
+    private static final int PROBES = 6;
+    private static final long FNV_OFFSET = 0xCBF29CE484222325L;
+    private static final long FNV_PRIME = 0x100000001B3L;
+    // Keeps prefix entries apart from whole-token entries of the same chars
+    private static final long PREFIX_SALT = 0x9E3779B97F4A7C15L;
+    // Walk budget on top of the state count; classes in patterns multiply the distinct first tokens
+    private static final int MAX_EXTRA_VISITS = 1 << 20;
+
+    private final long[] blocks;
+    private final int blockMask;
+    // Folded first chars of keywords, checked for every non-word char of the input
+    private final long[] rootLabels = new long[(Character.MAX_VALUE + 1) >>> 6];
+    // Bit n set when some prefix entry is n chars long
+    private long prefixLengths;
+    // Set when the first tokens cannot be enumerated, e.g. a pattern starting with a wildcard
+    private boolean matchesAnything;
+
+    private TokenBloomFilter(int tokenCount) {
+        long bits = Math.max(64L, (long) tokenCount * BITS_PER_TOKEN);
+        int blockCount = Integer.highestOneBit((int) Math.min(1 << 26, (bits + 63) >>> 6) * 2 - 1);
+        this.blocks = new long[blockCount];
+        this.blockMask = blockCount - 1;
+    }
+
+    public static TokenBloomFilter build(KeywordMatcher matcher) {
+        FirstTokens tokens = new FirstTokens();
+        tokens.collect(matcher);
+        TokenBloomFilter filter = new TokenBloomFilter(tokens.count);
+        for (int t = 0; t < tokens.count; t++) {
+            filter.add(tokens.hashes[t]);
+        }
+        filter.prefixLengths = tokens.prefixLengths;
+        filter.matchesAnything = tokens.unbounded;
+        matcher.forEachTransition(KeywordMatcher.ROOT,
+                (label, target) -> filter.rootLabels[label >>> 6] |= 1L << label);
+        return filter;
+    }
+
+    /**
+     * @return false only if no keyword can match anywhere in {@code text}
+     */
+    public boolean mightMatch(CharSequence text) {
+        if (matchesAnything) {
+            return true;
+        }
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            char c = text.charAt(i);
+            if (changesWordness(c)) {
+                return true;
+            }
+            if (!KeywordMatchers.isWordChar(c)) {
+                char folded = KeywordMatchers.fold(c);
+                if ((rootLabels[folded >>> 6] & (1L << folded)) != 0) {
+                    return true;
+                }
+                i++;
+                continue;
+            }
+            long hash = FNV_OFFSET;
+            int tokenLength = 0;
+            do {
+                if (changesWordness(c)) {
+                    return true;
+                }
+                hash = (hash ^ KeywordMatchers.fold(c)) * FNV_PRIME;
+                tokenLength++;
+                if (prefixLengths != 0 && tokenLength < Long.SIZE && (prefixLengths >>> tokenLength & 1) != 0
+                        && contains(mix(hash ^ PREFIX_SALT))) {
+                    return true;
+                }
+                i++;
+            } while (i < length && KeywordMatchers.isWordChar(c = text.charAt(i)));
+            if (contains(mix(hash))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Tokens are cut on the input while keyword tokens are cut on folded labels; the two agree
+    // except for a few marks such as COMBINING GREEK YPOGEGRAMMENI, which folds to a letter
+    private static boolean changesWordness(char c) {
+        return c >= 0x80 && KeywordMatchers.isWordChar(c) != KeywordMatchers.isWordChar(KeywordMatchers.fold(c));
+    }
+
+    int sizeInBytes() {
+        return blocks.length * Long.BYTES;
+    }
+
+    private void add(long hash) {
+        blocks[(int) hash & blockMask] |= probeMask(hash);
+    }
+
+    private boolean contains(long hash) {
+        long probes = probeMask(hash);
+        return (blocks[(int) hash & blockMask] & probes) == probes;
+    }
+
+    // Bit positions come from the upper hash bits, the block from the lower ones
+    private static long probeMask(long hash) {
+        long mask = 0;
+        for (int p = 0; p < PROBES; p++) {
+            mask |= 1L << (hash >>> (64 - 6 * (p + 1)));
+        }
+        return mask;
+    }
+
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        return hash ^ hash >>> 33;
+    }
+
+    private static final class FirstTokens {
+        private long[] hashes = new long[64];
+        private int count;
+        private long prefixLengths;
+        private boolean unbounded;
+
+        // Walks the word-char edges from the root; a token ends where a keyword ends or a non-word edge
+        // leaves, and a wildcard edge turns the chars walked so far into a prefix entry
+        private void collect(KeywordMatcher matcher) {
+            long budget = (long) matcher.stateCount() + MAX_EXTRA_VISITS;
+            Deque<long[]> pending = new ArrayDeque<>();
+            pending.push(new long[]{KeywordMatcher.ROOT, FNV_OFFSET, 0});
+            List<long[]> children = new ArrayList<>();
+            while (!pending.isEmpty()) {
+                if (--budget < 0) {
+                    unbounded = true;
+                    return;
+                }
+                long[] entry = pending.pop();
+                int state = (int) entry[0];
+                long hash = entry[1];
+                int depth = (int) entry[2];
+                boolean[] tokenEnds = {depth > 0 && matcher.keywordIndex(state) >= 0};
+                boolean[] wildcard = {false};
+                children.clear();
+                matcher.forEachTransition(state, (label, target) -> {
+                    if (label == KeywordMatcher.WILDCARD) {
+                        wildcard[0] = true;
+                    } else if (KeywordMatchers.isWordChar(label)) {
+                        children.add(new long[]{target, (hash ^ label) * FNV_PRIME, depth + 1});
+                    } else if (depth > 0) {
+                        tokenEnds[0] = true;
+                    }
+                });
+                if (wildcard[0]) {
+                    // Covers the tokens below this state as well
+                    if (depth == 0 || depth >= Long.SIZE) {
+                        unbounded = true;
+                        return;
+                    }
+                    prefixLengths |= 1L << depth;
+                    add(mix(hash ^ PREFIX_SALT));
+                    continue;
+                }
+                children.forEach(pending::push);
+                if (tokenEnds[0]) {
+                    add(mix(hash));
+                }
+            }
+        }
+
+        private void add(long hash) {
+            if (count == hashes.length) {
+                hashes = Arrays.copyOf(hashes, count * 2);
+            }
+            hashes[count++] = hash;
+        }
+    }
+}
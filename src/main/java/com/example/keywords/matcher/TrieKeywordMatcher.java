@@ -0,0 +1,114 @@
+package com.example.keywords.matcher;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Object-graph trie: one node object and one HashMap per state. Easy to follow, but it costs
+ * well over a hundred bytes of heap per state. Kept as the reference for {@link CompactKeywordMatcher}.
+ */
+public final class TrieKeywordMatcher implements KeywordMatcher {
+
+    private final List<Node> nodes = new ArrayList<>();
+    private final int keywordCount;
+
+    private TrieKeywordMatcher(int keywordCount) {
+        this.keywordCount = keywordCount;
+        nodes.add(new Node());
+    }
+
+    public static TrieKeywordMatcher build(List<String> keywords) {
+        if (KeywordAutomaton.hasPatterns(keywords)) {
+            return fromAutomaton(KeywordAutomaton.build(keywords), keywords.size());
+        }
+        TrieKeywordMatcher matcher = new TrieKeywordMatcher(keywords.size());
+        for (int i = 0; i < keywords.size(); i++) {
+            String keyword = KeywordMatchers.normalize(keywords.get(i));
+            if (keyword.isEmpty()) {
+                continue;
+            }
+            int state = ROOT;
+            for (int j = 0; j < keyword.length(); j++) {
+                state = matcher.child(state, keyword.charAt(j));
+            }
+            Node node = matcher.nodes.get(state);
+            if (node.keywordIndex < 0) {
+                node.keywordIndex = i;
+            }
+        }
+        return matcher;
+    }
+
+    private static TrieKeywordMatcher fromAutomaton(KeywordAutomaton automaton, int keywordCount) {
+        TrieKeywordMatcher matcher = new TrieKeywordMatcher(keywordCount);
+        int states = automaton.keywordIndexes.length;
+        for (int s = 1; s < states; s++) {
+            matcher.nodes.add(new Node());
+        }
+        for (int s = 0; s < states; s++) {
+            Node node = matcher.nodes.get(s);
+            node.keywordIndex = automaton.keywordIndexes[s];
+            for (int e = automaton.firstEdge[s]; e < automaton.firstEdge[s + 1]; e++) {
+                if (automaton.edgeLabels[e] == WILDCARD) {
+                    node.wildcard = automaton.edgeTargets[e];
+                } else {
+                    node.children.put(automaton.edgeLabels[e], automaton.edgeTargets[e]);
+                }
+            }
+        }
+        return matcher;
+    }
+
+    private int child(int state, char c) {
+        Map<Character, Integer> children = nodes.get(state).children;
+        Integer next = children.get(c);
+        if (next == null) {
+            next = nodes.size();
+            nodes.add(new Node());
+            children.put(c, next);
+        }
+        return next;
+    }
+
+    @Override
+    public int transition(int state, char c) {
+        Node node = nodes.get(state);
+        Integer next = node.children.get(c);
+        if (next != null) {
+            return next;
+        }
+        return node.wildcard != NO_STATE && KeywordMatchers.isWordChar(c) ? node.wildcard : NO_STATE;
+    }
+
+    @Override
+    public int keywordIndex(int state) {
+        return nodes.get(state).keywordIndex;
+    }
+
+    @Override
+    public int keywordCount() {
+        return keywordCount;
+    }
+
+    @Override
+    public int stateCount() {
+        return nodes.size();
+    }
+
+    @Override
+    public void forEachTransition(int state, TransitionVisitor visitor) {
+        Node node = nodes.get(state);
+        node.children.forEach(visitor::visit);
+        if (node.wildcard != NO_STATE) {
+            visitor.visit(WILDCARD, node.wildcard);
+        }
+    }
+
+    private static final class Node {
+        private final Map<Character, Integer> children = new HashMap<>();
+        private int keywordIndex = -1;
+        private int wildcard = NO_STATE;
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.keywords.matcher;
+
+/**
+ * Minimal UTF-8 decoding for scanning request bytes in place. Only well-formed sequences as RFC 3629
+ * defines them decode: overlong forms, UTF-16 surrogates, code points above U+10FFFF and truncated
+ * sequences are read byte by byte, each standing for U+FFFD, a non-word char. Decoding the body to a
+ * String gives U+FFFD for them too, so both paths see the same words and boundaries.
+ */
+public final class Utf8 {
+
+    static final int REPLACEMENT = 0xFFFD;
+
+    private Utf8() {
+    }
+
+    static int width(byte[] utf8, int i, int length) {
+        int lead = utf8[i] & 0xFF;
+        if (lead < 0x80) {
+            return 1;
+        }
+        int width;
+        // Range of the second byte; the others are plain continuation bytes
+        int min = 0x80;
+        int max = 0xBF;
+        if (lead >= 0xC2 && lead <= 0xDF) {
+            width = 2;
+        } else if (lead >= 0xE0 && lead <= 0xEF) {
+            width = 3;
+            if (lead == 0xE0) {
+                // Below U+0800 would be overlong
+                min = 0xA0;
+            } else if (lead == 0xED) {
+                // U+D800..U+DFFF are surrogates
+                max = 0x9F;
+            }
+        } else if (lead >= 0xF0 && lead <= 0xF4) {
+            width = 4;
+            if (lead == 0xF0) {
+                // Below U+10000 would be overlong
+                min = 0x90;
+            } else if (lead == 0xF4) {
+                // Above U+10FFFF
+                max = 0x8F;
+            }
+        } else {
+            return 1;
+        }
+        if (i + width > length) {
+            return 1;
+        }
+        int second = utf8[i + 1] & 0xFF;
+        if (second < min || second > max) {
+            return 1;
+        }
+        for (int k = 2; k < width; k++) {
+            if ((utf8[i + k] & 0xC0) != 0x80) {
+                return 1;
+            }
+        }
+        return width;
+    }
+
+    static int codePoint(byte[] utf8, int i, int width) {
+        return switch (width) {
+            case 1 -> utf8[i] >= 0 ? utf8[i] : REPLACEMENT;
+            case 2 -> (utf8[i] & 0x1F) << 6 | (utf8[i + 1] & 0x3F);
+            case 3 -> (utf8[i] & 0x0F) << 12 | (utf8[i + 1] & 0x3F) << 6 | (utf8[i + 2] & 0x3F);
+            default -> (utf8[i] & 0x07) << 18 | (utf8[i + 1] & 0x3F) << 12 | (utf8[i + 2] & 0x3F) << 6
+                    | (utf8[i + 3] & 0x3F);
+        };
+    }
+
+    // Number of UTF-16 chars the bytes in [from, to) decode to
+    public static int utf16Length(byte[] utf8, int from, int to) {
+        int units = 0;
+        for (int i = from; i < to; ) {
+            int width = width(utf8, i, to);
+            units += width == 4 ? 2 : 1;
+            i += width;
+        }
+        return units;
+    }
+
+    // Word chars are all in the BMP; surrogate pairs never are
+    static boolean isWordCodePoint(int codePoint) {
+        return codePoint < Character.MIN_SUPPLEMENTARY_CODE_POINT && KeywordMatchers.isWordChar((char) codePoint);
+    }
+
+    static boolean isAsciiWordByte(int b) {
+        return b < 0x80 && KeywordMatchers.isWordChar((char) b);
+    }
+
+    // Whether the char that ends right before i is a word char, decoding the way a forward scan would
+    static boolean isWordBefore(byte[] utf8, int i, int length) {
+        if (i == 0) {
+            return false;
+        }
+        if (utf8[i - 1] >= 0) {
+            return isAsciiWordByte(utf8[i - 1]);
+        }
+        int lead = i - 1;
+        while (lead > 0 && lead > i - 4 && (utf8[lead] & 0xC0) == 0x80) {
+            lead--;
+        }
+        int width = width(utf8, lead, length);
+        return width == i - lead && isWordCodePoint(codePoint(utf8, lead, width));
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.keywords.matcher;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * SIMD front end for {@link PairCandidateFilter}. Byte pairs are hashed into 8 buckets and each
+ * bucket is looked up through the low and high nibble of both bytes with in-register shuffles, so
+ * a whole vector of positions is tested at once. Lanes that survive are confirmed against the
+ * exact pair table.
+ *
+ * <p>Needs {@code --add-modules jdk.incubator.vector}; see {@link KeywordMatchers#candidateFilter}.
+ */
+final class VectorCandidateFilter implements CandidateFilter {
+
+    private static final VectorSpecies<Byte> SPECIES = ByteVector.SPECIES_PREFERRED;
+    private static final int NIBBLES = 16;
+
+    private final PairCandidateFilter exact;
+    private final ByteVector firstLow;
+    private final ByteVector firstHigh;
+    private final ByteVector secondLow;
+    private final ByteVector secondHigh;
+
+    VectorCandidateFilter(PairCandidateFilter exact) {
+        this.exact = exact;
+        byte[][] tables = new byte[4][SPECIES.length()];
+        for (int first = 0; first < 256; first++) {
+            for (int second = 0; second < 256; second++) {
+                if (!exact.contains(first, second)) {
+                    continue;
+                }
+                // Tables are keyed by the same ASCII-only folding the vector loop applies
+                int f1 = foldAscii(first);
+                int f2 = foldAscii(second);
+                byte bucket = (byte) (1 << ((f1 * 31 + f2) & 7));
+                tables[0][f1 & 0x0F] |= bucket;
+                tables[1][f1 >>> 4] |= bucket;
+                tables[2][f2 & 0x0F] |= bucket;
+                tables[3][f2 >>> 4] |= bucket;
+            }
+        }
+        firstLow = ByteVector.fromArray(SPECIES, tables[0], 0);
+        firstHigh = ByteVector.fromArray(SPECIES, tables[1], 0);
+        secondLow = ByteVector.fromArray(SPECIES, tables[2], 0);
+        secondHigh = ByteVector.fromArray(SPECIES, tables[3], 0);
+    }
+
+    // Nibble lookups index the first 16 lanes of a table vector
+    static boolean isSupported() {
+        return SPECIES.length() >= NIBBLES;
+    }
+
+    @Override
+    public int next(byte[] utf8, int from, int length) {
+        int i = from;
+        if (i == 0) {
+            if (length == 0 || exact.isCandidate(utf8, 0, length)) {
+                return 0;
+            }
+            i = 1;
+        }
+        int lanes = SPECIES.length();
+        // Each step reads bytes i - 1 up to i + lanes
+        for (; i + lanes < length; i += lanes) {
+            ByteVector previous = ByteVector.fromArray(SPECIES, utf8, i - 1);
+            ByteVector current = ByteVector.fromArray(SPECIES, utf8, i);
+            ByteVector following = ByteVector.fromArray(SPECIES, utf8, i + 1);
+
+            ByteVector first = foldAscii(current);
+            ByteVector second = foldAscii(following);
+            ByteVector buckets = lookup(firstLow, first.and((byte) 0x0F))
+                    .and(lookup(firstHigh, first.lanewise(VectorOperators.LSHR, 4).and((byte) 0x0F)))
+                    .and(lookup(secondLow, second.and((byte) 0x0F)))
+                    .and(lookup(secondHigh, second.lanewise(VectorOperators.LSHR, 4).and((byte) 0x0F)));
+            VectorMask<Byte> candidates = buckets.compare(VectorOperators.NE, (byte) 0)
+                    .andNot(isAsciiWord(previous).and(isAsciiWord(current)));
+
+            long bits = candidates.toLong();
+            while (bits != 0) {
+                int position = i + Long.numberOfTrailingZeros(bits);
+                if (exact.isCandidate(utf8, position, length)) {
+                    return position;
+                }
+                bits &= bits - 1;
+            }
+        }
+        return exact.next(utf8, i, length);
+    }
+
+    private static ByteVector lookup(ByteVector table, ByteVector nibbles) {
+        return table.rearrange(nibbles.toShuffle());
+    }
+
+    private static ByteVector foldAscii(ByteVector bytes) {
+        VectorMask<Byte> lower = bytes.compare(VectorOperators.GE, (byte) 'a')
+                .and(bytes.compare(VectorOperators.LE, (byte) 'z'));
+        return bytes.sub((byte) ('a' - 'A'), lower);
+    }
+
+    // Bytes of non-ASCII chars are negative and never count as word bytes here
+    private static VectorMask<Byte> isAsciiWord(ByteVector bytes) {
+        ByteVector folded = foldAscii(bytes);
+        return folded.compare(VectorOperators.GE, (byte) 'A').and(folded.compare(VectorOperators.LE, (byte) 'Z'))
+                .or(bytes.compare(VectorOperators.GE, (byte) '0').and(bytes.compare(VectorOperators.LE, (byte) '9')))
+                .or(bytes.compare(VectorOperators.EQ, (byte) '_'));
+    }
+
+    private static int foldAscii(int b) {
+        return b >= 'a' && b <= 'z' ? b - ('a' - 'A') : b;
+    }
+}
@@ -6,6 +6,8 @@ import lombok.EqualsAndHashCode;
 import org.hibernate.annotations.Cache;
 import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
@@ -16,6 +18,7 @@ import java.time.LocalDateTime;
 @EqualsAndHashCode(onlyExplicitlyIncluded = true) // Important for cache
 @Cacheable
 @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "com.example.keywords.model.Keyword")
+@NaturalIdCache(region = "com.example.keywords.model.Keyword##NaturalId")
 public class Keyword {
 
     @Id
@@ -23,10 +26,17 @@ public class Keyword {
     @EqualsAndHashCode.Include
     private Long id;
 
+    // Mutable because keywords can be renamed; lookups by word go through the natural-id cache
+    @NaturalId(mutable = true)
     @Column(unique = true, nullable = false)
     @EqualsAndHashCode.Include
     private String word;
 
+    // Bumped on every update, so concurrent edits fail instead of overwriting each other
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     @CreationTimestamp
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
@@ -0,0 +1,26 @@
+package com.example.keywords.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+/**
+ * The single row counting writes to the keywords table. A database trigger increments it in the
+ * same transaction as every insert, update and delete, so it only ever grows and two different
+ * keyword sets never share a version.
+ */
+@Entity
+@Table(name = "keyword_set_version")
+@Data
+public class KeywordSetVersion {
+
+    public static final int ID = 1;
+
+    @Id
+    private Integer id;
+
+    @Column(nullable = false)
+    private long version;
+}
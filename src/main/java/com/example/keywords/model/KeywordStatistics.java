@@ -0,0 +1,30 @@
+package com.example.keywords.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Matches counted for one keyword across all instances. Rows are only ever incremented, by
+ * {@link com.example.keywords.repository.KeywordStatisticsRepositoryCustom#addHits}, and are left
+ * behind when their keyword is deleted; reads join them to the keywords that still exist.
+ */
+@Entity
+@Table(name = "keyword_statistics")
+@Data
+public class KeywordStatistics {
+
+    @Id
+    @Column(name = "keyword_id")
+    private Long keywordId;
+
+    @Column(name = "hit_count", nullable = false)
+    private long hitCount;
+
+    @Column(name = "last_hit_at")
+    private LocalDateTime lastHitAt;
+}
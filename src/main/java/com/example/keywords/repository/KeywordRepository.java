@@ -1,42 +1,36 @@
 package com.example.keywords.repository;
 
+import com.example.keywords.dto.KeywordDTO;
 import com.example.keywords.model.Keyword;
+import com.example.keywords.model.KeywordSetVersion;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
-import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
-import jakarta.persistence.QueryHint;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface KeywordRepository extends JpaRepository<Keyword, Long> {
+public interface KeywordRepository extends JpaRepository<Keyword, Long>, KeywordRepositoryCustom {
 
-    // Natural ID query - will use second level cache automatically
-    @QueryHints({
-            @QueryHint(name = "org.hibernate.cacheable", value = "true"),
-            @QueryHint(name = "org.hibernate.cacheRegion", value = "keywordByWord")
-    })
     Optional<Keyword> findByWord(String word);
 
-    // Exists query - can be cached
-    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
-    boolean existsByWord(String word);
-
-    // Query with projection - cache results
-    @Query("SELECT k.word FROM Keyword k")
-    @QueryHints({
-            @QueryHint(name = "org.hibernate.cacheable", value = "true"),
-            @QueryHint(name = "org.hibernate.cacheRegion", value = "allKeywordWords")
-    })
+    // Ordered so that matcher keyword indexes are stable
+    @Query("SELECT k.word FROM Keyword k ORDER BY k.id")
     List<String> findAllWords();
 
-    // Additional cached queries
-    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
-    List<Keyword> findAll();
+    // Same order as findAllWords, so a position in one list is the same keyword in the other
+    @Query("SELECT k.id FROM Keyword k ORDER BY k.id")
+    List<Long> findAllIds();
+
+    // Read path for listings: rows go straight into DTOs, so nothing is attached to the persistence context
+    @Query("SELECT new com.example.keywords.dto.KeywordDTO(k.id, k.word, k.version) FROM Keyword k ORDER BY k.id")
+    List<KeywordDTO> findAllDtos();
+
+    // Primary-key read of the counter the keywords trigger bumps; not cached so that other nodes' writes are seen
+    @Query("SELECT v.version FROM KeywordSetVersion v WHERE v.id = " + KeywordSetVersion.ID)
+    Optional<Long> findKeywordSetVersion();
 
-    // Find keywords containing text - cacheable
+    // Find keywords containing text
     @Query("SELECT k FROM Keyword k WHERE LOWER(k.word) LIKE LOWER(CONCAT('%', :text, '%'))")
-    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     List<Keyword> findByWordContaining(String text);
 }
\ No newline at end of file
@@ -0,0 +1,14 @@
+package com.example.keywords.repository;
+
+import com.example.keywords.model.Keyword;
+
+import java.util.Optional;
+
+public interface KeywordRepositoryCustom {
+
+    // Resolves through the natural-id and entity caches, so a cached word costs no SQL
+    Optional<Keyword> findByNaturalWord(String word);
+
+    // One statement that inserts the word unless it exists; empty if it did, including when a concurrent insert won
+    Optional<Long> insertIfAbsent(String word);
+}
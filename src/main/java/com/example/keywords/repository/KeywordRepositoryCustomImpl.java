@@ -0,0 +1,83 @@
+package com.example.keywords.repository;
+
+import com.example.keywords.model.Keyword;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Session;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@RequiredArgsConstructor
+class KeywordRepositoryCustomImpl implements KeywordRepositoryCustom {
+
+    // HOLDLOCK keeps the range of the missing word locked from the check to the insert, so racing
+    // creates wait for each other instead of failing on the unique index
+    private static final String SQL_SERVER_INSERT_IF_ABSENT = """
+            MERGE INTO keywords WITH (HOLDLOCK) AS target
+            USING (SELECT ? AS word) AS source ON target.word = source.word
+            WHEN NOT MATCHED THEN INSERT (word, version, created_at, updated_at) VALUES (source.word, 0, ?, ?)
+            OUTPUT inserted.id;""";
+
+    private static final String INSERT_IF_ABSENT = """
+            MERGE INTO keywords AS target
+            USING (SELECT CAST(? AS VARCHAR(255)) AS word) AS source ON target.word = source.word
+            WHEN NOT MATCHED THEN INSERT (word, version, created_at, updated_at) VALUES (source.word, 0, ?, ?)""";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private volatile Boolean sqlServer;
+
+    @Override
+    public Optional<Keyword> findByNaturalWord(String word) {
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(Keyword.class)
+                .loadOptional(word);
+    }
+
+    @Override
+    public Optional<Long> insertIfAbsent(String word) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        if (isSqlServer()) {
+            return jdbcTemplate.queryForList(SQL_SERVER_INSERT_IF_ABSENT, Long.class, word, now, now)
+                    .stream()
+                    .findFirst();
+        }
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        try {
+            int inserted = jdbcTemplate.update(connection -> {
+                PreparedStatement statement = connection.prepareStatement(INSERT_IF_ABSENT, new String[]{"id"});
+                statement.setString(1, word);
+                statement.setTimestamp(2, now);
+                statement.setTimestamp(3, now);
+                return statement;
+            }, keyHolder);
+            return inserted == 0 ? Optional.empty() : Optional.of(keyHolder.getKey().longValue());
+        } catch (DuplicateKeyException e) {
+            // Without a range lock a concurrent insert of the same word can win between check and insert
+            return Optional.empty();
+        }
+    }
+
+    private boolean isSqlServer() {
+        Boolean result = sqlServer;
+        if (result == null) {
+            String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                    connection.getMetaData().getDatabaseProductName());
+            result = product != null && product.startsWith("Microsoft SQL Server");
+            sqlServer = result;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.keywords.repository;
+
+import com.example.keywords.dto.KeywordHitsDTO;
+import com.example.keywords.model.KeywordStatistics;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface KeywordStatisticsRepository
+        extends JpaRepository<KeywordStatistics, Long>, KeywordStatisticsRepositoryCustom {
+
+    @Query("SELECT new com.example.keywords.dto.KeywordHitsDTO(k.id, k.word, COALESCE(s.hitCount, 0L), s.lastHitAt) "
+            + "FROM Keyword k LEFT JOIN KeywordStatistics s ON s.keywordId = k.id "
+            + "ORDER BY COALESCE(s.hitCount, 0L) DESC, k.id")
+    List<KeywordHitsDTO> findMostHit(Pageable pageable);
+
+    // Keywords that never matched come first, so they can be pruned
+    @Query("SELECT new com.example.keywords.dto.KeywordHitsDTO(k.id, k.word, COALESCE(s.hitCount, 0L), s.lastHitAt) "
+            + "FROM Keyword k LEFT JOIN KeywordStatistics s ON s.keywordId = k.id "
+            + "ORDER BY COALESCE(s.hitCount, 0L) ASC, k.id")
+    List<KeywordHitsDTO> findLeastHit(Pageable pageable);
+}
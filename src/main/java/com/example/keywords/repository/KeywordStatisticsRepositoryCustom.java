@@ -0,0 +1,10 @@
+package com.example.keywords.repository;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+public interface KeywordStatisticsRepositoryCustom {
+
+    // Adds each count to its keyword's row, creating missing rows; two batched statements at most
+    void addHits(Map<Long, Long> hitsByKeywordId, LocalDateTime lastHitAt);
+}
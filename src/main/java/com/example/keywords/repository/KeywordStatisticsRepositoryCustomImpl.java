@@ -0,0 +1,41 @@
+package com.example.keywords.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+@RequiredArgsConstructor
+class KeywordStatisticsRepositoryCustomImpl implements KeywordStatisticsRepositoryCustom {
+
+    private static final String UPDATE_SQL =
+            "UPDATE keyword_statistics SET hit_count = hit_count + ?, last_hit_at = ? WHERE keyword_id = ?";
+    private static final String INSERT_SQL =
+            "INSERT INTO keyword_statistics (keyword_id, hit_count, last_hit_at) VALUES (?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void addHits(Map<Long, Long> hitsByKeywordId, LocalDateTime lastHitAt) {
+        Timestamp at = Timestamp.valueOf(lastHitAt);
+        List<Object[]> updates = new ArrayList<>(hitsByKeywordId.size());
+        hitsByKeywordId.forEach((id, hits) -> updates.add(new Object[]{hits, at, id}));
+        int[] updated = jdbcTemplate.batchUpdate(UPDATE_SQL, updates);
+
+        // Most keywords that fire have fired before, so inserts are rare after the first flushes
+        List<Object[]> inserts = new ArrayList<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                Object[] update = updates.get(i);
+                inserts.add(new Object[]{update[2], update[0], at});
+            }
+        }
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, inserts);
+        }
+    }
+}
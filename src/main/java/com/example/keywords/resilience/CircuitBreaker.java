@@ -0,0 +1,92 @@
+package com.example.keywords.resilience;
+
+import com.example.keywords.exception.ServiceUnavailableException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.function.Supplier;
+
+/**
+ * Consecutive-failure circuit breaker. After {@code failureThreshold} failures in a row calls are
+ * rejected for {@code openDuration}; then a single trial call decides whether to close again.
+ */
+@Slf4j
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final String name;
+    private final int failureThreshold;
+    private final Duration openDuration;
+    private final Clock clock;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private Instant openedAt;
+    private boolean trialInFlight;
+
+    public CircuitBreaker(String name, int failureThreshold, Duration openDuration, Clock clock) {
+        this.name = name;
+        this.failureThreshold = failureThreshold;
+        this.openDuration = openDuration;
+        this.clock = clock;
+    }
+
+    public <T> T call(Supplier<T> action) {
+        acquirePermission();
+        try {
+            T result = action.get();
+            onSuccess();
+            return result;
+        } catch (Throwable e) {
+            // Errors count too: otherwise a failed half-open trial would leave trialInFlight set for good
+            onFailure();
+            throw e;
+        }
+    }
+
+    public synchronized State getState() {
+        if (state == State.OPEN && !clock.instant().isBefore(openedAt.plus(openDuration))) {
+            return State.HALF_OPEN;
+        }
+        return state;
+    }
+
+    private synchronized void acquirePermission() {
+        State current = getState();
+        if (current == State.CLOSED) {
+            return;
+        }
+        if (current == State.HALF_OPEN && !trialInFlight) {
+            state = State.HALF_OPEN;
+            trialInFlight = true;
+            return;
+        }
+        throw new ServiceUnavailableException(String.format("Circuit '%s' is open", name));
+    }
+
+    private synchronized void onSuccess() {
+        if (state != State.CLOSED) {
+            log.info("Circuit '{}' closed", name);
+        }
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        trialInFlight = false;
+    }
+
+    private synchronized void onFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            if (state != State.OPEN) {
+                log.warn("Circuit '{}' opened after {} consecutive failures", name, consecutiveFailures);
+            }
+            state = State.OPEN;
+            openedAt = clock.instant();
+        }
+        trialInFlight = false;
+    }
+}
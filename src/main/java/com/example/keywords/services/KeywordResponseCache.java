@@ -0,0 +1,22 @@
+package com.example.keywords.services;
+
+import java.io.Serializable;
+
+public interface KeywordResponseCache {
+
+    /**
+     * Encoded body of one response and the version it was built from, plus its gzip encoding when
+     * the body is large enough for compression to pay off ({@code null} otherwise).
+     */
+    record Body(long version, byte[] bytes, byte[] gzip) implements Serializable {
+    }
+
+    // Serialized once per keyword-set version and shared by every request until it changes
+    public Body getKeywordList();
+
+    // Serialized once per keyword version; the keyword itself still comes from the second-level cache
+    public Body getKeyword(Long id);
+
+    // Binary KeywordExport of the keyword set, written once per keyword-set version and variant
+    public Body getExport(boolean includeMatcher);
+}
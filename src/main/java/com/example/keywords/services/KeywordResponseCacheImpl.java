@@ -0,0 +1,107 @@
+package com.example.keywords.services;
+
+import com.example.keywords.config.KeywordProperties;
+import com.example.keywords.dto.KeywordDTO;
+import com.example.keywords.event.KeywordsChangedEvent;
+import com.example.keywords.matcher.KeywordExport;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import javax.cache.Cache;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongFunction;
+import java.util.zip.GZIPOutputStream;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class KeywordResponseCacheImpl implements KeywordResponseCache {
+
+    private final KeywordService keywordService;
+    private final ObjectMapper objectMapper;
+    private final KeywordProperties keywordProperties;
+    // Bounded region of the Hibernate cache manager, see HibernateCacheConfig
+    private final Cache<Long, Body> keywords;
+    private final AtomicReference<Body> keywordList = new AtomicReference<>();
+    private final AtomicReference<Body> export = new AtomicReference<>();
+    private final AtomicReference<Body> exportWithMatcher = new AtomicReference<>();
+
+    @Override
+    public Body getKeywordList() {
+        return current(keywordList, this::serializeList);
+    }
+
+    @Override
+    public Body getKeyword(Long id) {
+        KeywordDTO keyword = keywordService.getKeywordById(id);
+        Body body = keywords.get(id);
+        if (body == null || body.version() != keyword.getVersion()) {
+            body = new Body(keyword.getVersion(), toJson(keyword), null);
+            keywords.put(id, body);
+        }
+        return body;
+    }
+
+    @Override
+    public Body getExport(boolean includeMatcher) {
+        return current(includeMatcher ? exportWithMatcher : export, version -> new Body(version,
+                KeywordExport.write(version, keywordService.getAllKeywordWords(), includeMatcher), null));
+    }
+
+    @EventListener
+    public void onKeywordsChanged(KeywordsChangedEvent event) {
+        // Versions already keep stale bodies from being served; this only frees the entry early
+        keywords.remove(event.getKeywordId());
+    }
+
+    private Body current(AtomicReference<Body> cached, LongFunction<Body> build) {
+        // The database version, not the snapshot's, so a read right after a committed write sees it
+        // even while the snapshot is still rebuilding. It is read before the data: a concurrent write
+        // can only make a body newer than its version, and the next request replaces it.
+        long version = keywordService.getKeywordSetVersion();
+        Body body = cached.get();
+        if (body == null || body.version() != version) {
+            synchronized (cached) {
+                body = cached.get();
+                if (body == null || body.version() != version) {
+                    body = build.apply(version);
+                    cached.set(body);
+                }
+            }
+        }
+        return body;
+    }
+
+    private Body serializeList(long version) {
+        byte[] json = toJson(keywordService.getAllKeywords());
+        byte[] gzip = json.length >= keywordProperties.getKeywordList().getGzipMinSize().toBytes() ? gzip(json) : null;
+        log.debug("Serialized keyword list version {}: {} bytes, {} gzipped", version, json.length,
+                gzip == null ? "not" : gzip.length);
+        return new Body(version, json, gzip);
+    }
+
+    private byte[] toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize " + value.getClass().getSimpleName(), e);
+        }
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
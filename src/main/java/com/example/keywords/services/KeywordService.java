@@ -18,11 +18,23 @@ public interface KeywordService {
 
     public KeywordDTO getKeywordById(Long id);
 
+    // Matched the way keywords are stored: upper case, single spaces
+    public KeywordDTO getKeywordByWord(String word);
+
     public List<KeywordDTO> getAllKeywords();
 
     public KeywordDTO updateKeyword(Long id, KeywordDTO keywordDTO);
 
+    // Fails with PreconditionFailedException unless the keyword is still at expectedVersion; null skips the check
+    public KeywordDTO updateKeyword(Long id, KeywordDTO keywordDTO, Long expectedVersion);
+
     public void deleteKeyword(Long id);
 
     public List<String> getAllKeywordWords();
+
+    // Ids in the order of getAllKeywordWords
+    public List<Long> getAllKeywordIds();
+
+    // Grows with every write to the keywords table, whichever instance or tool made it
+    public long getKeywordSetVersion();
 }
\ No newline at end of file
@@ -1,25 +1,30 @@
 package com.example.keywords.services;
 
 
+import com.example.keywords.config.KeywordProperties;
 import com.example.keywords.dto.KeywordDTO;
+import com.example.keywords.event.KeywordsChangedEvent;
 import com.example.keywords.exception.DuplicateResourceException;
+import com.example.keywords.exception.PreconditionFailedException;
 import com.example.keywords.exception.ResourceNotFoundException;
+import com.example.keywords.exception.ValidationException;
+import com.example.keywords.matcher.KeywordMatchers;
+import com.example.keywords.matcher.KeywordPattern;
+import com.example.keywords.matcher.KeywordSnapshot;
 import com.example.keywords.model.Keyword;
 import com.example.keywords.repository.KeywordRepository;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityManagerFactory;
 import jakarta.persistence.PersistenceContext;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
-import org.hibernate.stat.Statistics;
-import org.springframework.cache.annotation.CacheConfig;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -33,77 +38,151 @@ public class KeywordServiceImpl implements KeywordService {
 
         private final EntityManagerFactory entityManagerFactory;
 
-        @CacheEvict(value = {"keywordById", "allKeywords", "allKeywordWords"}, allEntries = true)
-        public KeywordDTO createKeyword(KeywordDTO keywordDTO) {
-            String word = keywordDTO.getWord().toUpperCase();
+        private final ApplicationEventPublisher eventPublisher;
 
-            // Check for duplicates
-            if (keywordRepository.existsByWord(word)) {
-                throw new DuplicateResourceException("Keyword", "word", word);
-            }
+        private final KeywordProperties keywordProperties;
 
-            Keyword keyword = new Keyword();
-            keyword.setWord(word);
-            Keyword saved = keywordRepository.save(keyword);
-            return convertToDTO(saved);
+        // A provider, because the snapshot service reads its keywords through this one
+        private final ObjectProvider<KeywordSnapshotService> keywordSnapshotService;
+
+        public KeywordDTO createKeyword(KeywordDTO keywordDTO) {
+            String word = normalizeWord(keywordDTO.getWord());
+            checkKeywordSetCompiles(word, null);
+
+            // The unique index decides, in the same statement as the insert
+            Long id = keywordRepository.insertIfAbsent(word)
+                    .orElseThrow(() -> new DuplicateResourceException("Keyword", "word", word));
+            eventPublisher.publishEvent(new KeywordsChangedEvent(id));
+            return new KeywordDTO(id, word, 0L);
         }
 
         @Transactional(readOnly = true)
-        @Cacheable(value = "keywordById", key = "#id", unless = "#result == null")
         public KeywordDTO getKeywordById(Long id) {
+            // Served from the second-level cache without SQL, which a projection query cannot beat;
+            // the read-only transaction keeps no dirty-checking snapshot of the entity
             Keyword keyword = keywordRepository.findById(id)
                     .orElseThrow(() -> new ResourceNotFoundException("Keyword", "id", id));
             return convertToDTO(keyword);
         }
 
         @Transactional(readOnly = true)
-        @Cacheable(value = "allKeywords")
+        public KeywordDTO getKeywordByWord(String word) {
+            String canonical = canonicalWord(word);
+            Keyword keyword = keywordRepository.findByNaturalWord(canonical)
+                    .orElseThrow(() -> new ResourceNotFoundException("Keyword", "word", canonical));
+            return convertToDTO(keyword);
+        }
+
+        @Transactional(readOnly = true)
         public List<KeywordDTO> getAllKeywords() {
-            return keywordRepository.findAll()
-                    .stream()
-                    .map(this::convertToDTO)
-                    .collect(Collectors.toList());
+            return keywordRepository.findAllDtos();
         }
 
         @Transactional
-        @CacheEvict(value = {"keywordById", "allKeywords", "allKeywordWords"},
-                key = "#id", allEntries = false)
         public KeywordDTO updateKeyword(Long id, KeywordDTO keywordDTO) {
+            return updateKeyword(id, keywordDTO, null);
+        }
+
+        @Transactional
+        public KeywordDTO updateKeyword(Long id, KeywordDTO keywordDTO, Long expectedVersion) {
             Keyword keyword = keywordRepository.findById(id)
                     .orElseThrow(() -> new ResourceNotFoundException("Keyword", "id", id));
+            if (expectedVersion != null && !expectedVersion.equals(keyword.getVersion())) {
+                throw new PreconditionFailedException("Keyword", id);
+            }
 
-            String newWord = keywordDTO.getWord().toUpperCase();
+            String newWord = normalizeWord(keywordDTO.getWord());
 
             // Check if updating to a duplicate word (different from current)
-            if (!keyword.getWord().equals(newWord) && keywordRepository.existsByWord(newWord)) {
+            if (!keyword.getWord().equals(newWord) && keywordRepository.findByNaturalWord(newWord).isPresent()) {
                 throw new DuplicateResourceException("Keyword", "word", newWord);
             }
+            checkKeywordSetCompiles(newWord, keyword.getWord());
 
             keyword.setWord(newWord);
-            Keyword updated = keywordRepository.save(keyword);
+            // Flushed here so that the new version is known, and a concurrent update fails, before returning
+            Keyword updated = keywordRepository.saveAndFlush(keyword);
+            eventPublisher.publishEvent(new KeywordsChangedEvent(id));
             return convertToDTO(updated);
         }
 
         @Transactional
-        @CacheEvict(value = {"keywordById", "allKeywords", "allKeywordWords"},
-                key = "#id", allEntries = true)
         public void deleteKeyword(Long id) {
             if (!keywordRepository.existsById(id)) {
                 throw new ResourceNotFoundException("Keyword", "id", id);
             }
             keywordRepository.deleteById(id);
+            eventPublisher.publishEvent(new KeywordsChangedEvent(id));
         }
 
         @Transactional(readOnly = true)
-        @Cacheable(value = "allKeywordWords")
         public List<String> getAllKeywordWords() {
                 return keywordRepository.findAllWords();
         }
 
+        @Transactional(readOnly = true)
+        public List<Long> getAllKeywordIds() {
+            return keywordRepository.findAllIds();
+        }
+
+        @Transactional(readOnly = true)
+        public long getKeywordSetVersion() {
+            return keywordRepository.findKeywordSetVersion()
+                    .orElseThrow(() -> new IllegalStateException(
+                            "keyword_set_version has no row; the database migrations have not run"));
+        }
+
+        // Phrases are stored with single spaces so that differently spaced duplicates are caught
+        private static String normalizeWord(String word) {
+            String normalized = canonicalWord(word);
+            try {
+                KeywordPattern.parse(normalized);
+            } catch (IllegalArgumentException e) {
+                throw new ValidationException(e.getMessage());
+            }
+            return normalized;
+        }
+
+        // Patterns can multiply automaton states with every other keyword, so a write that adds one, or
+        // that lands in a set which already has some, compiles the set as it will be after the write. The
+        // set comes from the current snapshot, so the check costs no query; it is read from the table only
+        // before the first snapshot or when that was mapped from an image without its words.
+        //
+        // This is check-then-insert: the snapshot may not have caught up with the latest writes yet, and two
+        // pattern writes checked at the same time can each pass and together still exceed the limit. The
+        // rebuild after them then fails, keeps the previous snapshot and reports why in health.
+        private void checkKeywordSetCompiles(String word, String replacedWord) {
+            KeywordSnapshotService snapshots = keywordSnapshotService.getIfAvailable();
+            KeywordSnapshot snapshot = snapshots != null ? snapshots.findSnapshot().orElse(null) : null;
+            boolean literal = KeywordPattern.parse(word).isLiteral();
+            if (literal && snapshot != null && !snapshot.hasPatterns()) {
+                return;
+            }
+            List<String> words = new ArrayList<>(snapshot != null && snapshot.getWords() != null
+                    ? snapshot.getWords() : keywordRepository.findAllWords());
+            if (replacedWord != null) {
+                words.remove(replacedWord);
+            }
+            words.add(word);
+            try {
+                KeywordMatchers.checkCompiles(words, keywordProperties.getMatcher().getMaxPatternStates());
+            } catch (IllegalArgumentException e) {
+                throw new ValidationException("Keyword would make the keyword set too large to compile: "
+                        + e.getMessage());
+            }
+        }
+
+        // The matcher's own per-char fold; String.toUpperCase can change the length, e.g. sharp s to SS,
+        // and a word stored that way would never match the text it was written for
+        private static String canonicalWord(String word) {
+            return KeywordMatchers.normalize(word);
+        }
+
         private KeywordDTO convertToDTO(Keyword keyword) {
             KeywordDTO dto = new KeywordDTO();
             dto.setId(keyword.getId());
             dto.setWord(keyword.getWord());
+            dto.setVersion(keyword.getVersion());
             return dto;
         }
     }
\ No newline at end of file
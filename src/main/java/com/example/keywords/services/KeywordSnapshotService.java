@@ -0,0 +1,33 @@
+package com.example.keywords.services;
+
+import com.example.keywords.matcher.KeywordSnapshot;
+import com.example.keywords.resilience.CircuitBreaker;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+
+public interface KeywordSnapshotService {
+
+    // Never touches the database; throws ServiceUnavailableException until a snapshot is loaded
+    public KeywordSnapshot getSnapshot();
+
+    // Never loads; empty until the first snapshot has been built
+    public Optional<KeywordSnapshot> findSnapshot();
+
+    public KeywordSnapshot refresh();
+
+    // Hits counted on snapshots replaced since the last call, by keyword id; the current snapshot keeps its own
+    public Map<Long, Long> drainRetiredHits();
+
+    // Last time the database confirmed the snapshot was current, null if it never has
+    public Instant getLastSyncedAt();
+
+    // True while the snapshot is served without a successful database check since the last failure
+    public boolean isDegraded();
+
+    // Why the last snapshot rebuild failed, such as a keyword set that no longer compiles; null once one succeeds
+    public String getLastRefreshError();
+
+    public CircuitBreaker.State getCircuitState();
+}
@@ -0,0 +1,375 @@
+package com.example.keywords.services;
+
+import com.example.keywords.config.KeywordProperties;
+import com.example.keywords.event.KeywordsChangedEvent;
+import com.example.keywords.exception.ServiceUnavailableException;
+import com.example.keywords.matcher.CandidateFilter;
+import com.example.keywords.matcher.CompactKeywordMatcher;
+import com.example.keywords.matcher.FuzzyKeywordIndex;
+import com.example.keywords.matcher.KeywordHitCounters;
+import com.example.keywords.matcher.KeywordMatcher;
+import com.example.keywords.matcher.KeywordMatchers;
+import com.example.keywords.matcher.KeywordSnapshot;
+import com.example.keywords.matcher.MatcherImage;
+import com.example.keywords.matcher.MatcherType;
+import com.example.keywords.matcher.TokenBloomFilter;
+import com.example.keywords.resilience.CircuitBreaker;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+@Service
+public class KeywordSnapshotServiceImpl implements KeywordSnapshotService {
+
+    private final KeywordService keywordService;
+    private final KeywordProperties keywordProperties;
+    // Guards every database read made for the snapshot so an outage fails fast instead of piling up
+    private final CircuitBreaker databaseCircuit;
+
+    private final Object publishLock = new Object();
+    // Refreshes are numbered when requested; a snapshot never replaces one from a later request
+    private final AtomicLong refreshTickets = new AtomicLong();
+    private final AtomicBoolean refreshQueued = new AtomicBoolean();
+    private long publishedTicket;
+    private volatile KeywordSnapshot snapshot;
+    // Hits drained from replaced snapshots, by keyword id, until the statistics flush takes them; guarded by publishLock
+    private final Map<Long, Long> retiredHits = new HashMap<>();
+    // Last replaced snapshot, drained again for matches that were still running on it; guarded by publishLock
+    private KeywordSnapshot retired;
+    private volatile Instant lastSyncedAt;
+    private volatile boolean degraded;
+    private volatile String lastRefreshError;
+
+    private final ScheduledExecutorService refreshExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "keyword-snapshot-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public KeywordSnapshotServiceImpl(KeywordService keywordService, KeywordProperties keywordProperties) {
+        this.keywordService = keywordService;
+        this.keywordProperties = keywordProperties;
+        KeywordProperties.Snapshot settings = keywordProperties.getSnapshot();
+        this.databaseCircuit = new CircuitBreaker("keyword-database", settings.getFailureThreshold(),
+                settings.getOpenDuration(), Clock.systemUTC());
+    }
+
+    public KeywordSnapshot getSnapshot() {
+        KeywordSnapshot current = snapshot;
+        if (current == null) {
+            throw new ServiceUnavailableException("Keyword snapshot is not loaded yet");
+        }
+        return current;
+    }
+
+    public Optional<KeywordSnapshot> findSnapshot() {
+        return Optional.ofNullable(snapshot);
+    }
+
+    public KeywordSnapshot refresh() {
+        return refresh(refreshTickets.incrementAndGet());
+    }
+
+    public Map<Long, Long> drainRetiredHits() {
+        synchronized (publishLock) {
+            if (retired != null) {
+                retired.drainHits(retiredHits);
+            }
+            Map<Long, Long> hits = new HashMap<>(retiredHits);
+            retiredHits.clear();
+            return hits;
+        }
+    }
+
+    public Instant getLastSyncedAt() {
+        return lastSyncedAt;
+    }
+
+    public boolean isDegraded() {
+        return degraded;
+    }
+
+    public String getLastRefreshError() {
+        return lastRefreshError;
+    }
+
+    public CircuitBreaker.State getCircuitState() {
+        return databaseCircuit.getState();
+    }
+
+    private KeywordSnapshot refresh(long ticket) {
+        KeywordSnapshot built;
+        try {
+            built = build();
+        } catch (RuntimeException e) {
+            degraded = true;
+            lastRefreshError = e.getMessage() != null ? e.getMessage() : e.getClass().getName();
+            throw e;
+        }
+        synchronized (publishLock) {
+            if (ticket > publishedTicket) {
+                publishedTicket = ticket;
+                retire(snapshot);
+                snapshot = built;
+            }
+            lastSyncedAt = Instant.now();
+            degraded = false;
+            lastRefreshError = null;
+            return snapshot;
+        }
+    }
+
+    // Called under publishLock, so the counts of a snapshot survive however often it is replaced between
+    // two flushes. The previously replaced one is drained a last time; only a match still running on a
+    // snapshot two replacements old goes uncounted
+    private void retire(KeywordSnapshot replaced) {
+        if (replaced == null) {
+            return;
+        }
+        if (retired != null) {
+            retired.drainHits(retiredHits);
+        }
+        replaced.drainHits(retiredHits);
+        retired = replaced;
+    }
+
+    @EventListener
+    public void onKeywordsChanged(KeywordsChangedEvent event) {
+        // Only committed changes are visible to the refresh's own connection, and a rolled back
+        // one needs no refresh at all
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    scheduleRefresh();
+                }
+            });
+        } else {
+            scheduleRefresh();
+        }
+    }
+
+    // Changes committed while a refresh is queued are picked up by that refresh, so a burst of
+    // writes costs one rebuild; once it has started, the next change queues another
+    private void scheduleRefresh() {
+        if (refreshQueued.compareAndSet(false, true)) {
+            refreshExecutor.execute(() -> {
+                refreshQueued.set(false);
+                refreshQuietly(refreshTickets.incrementAndGet());
+            });
+        }
+    }
+
+    @Order(0)
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        if (keywordProperties.getSnapshot().isLoadOnStartup()) {
+            refreshQuietly(refreshTickets.incrementAndGet());
+            if (snapshot == null) {
+                loadLastKnownGood();
+            }
+        }
+        Duration interval = keywordProperties.getSnapshot().getRefreshInterval();
+        if (interval.isPositive()) {
+            refreshExecutor.scheduleWithFixedDelay(this::poll, interval.toMillis(), interval.toMillis(),
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+
+    // Picks up changes made through other instances and recovers once the database is back
+    void poll() {
+        try {
+            long ticket = refreshTickets.incrementAndGet();
+            long version = databaseCircuit.call(keywordService::getKeywordSetVersion);
+            KeywordSnapshot current = snapshot;
+            if (current != null && current.getVersion() == version) {
+                lastSyncedAt = Instant.now();
+                degraded = false;
+                return;
+            }
+            refresh(ticket);
+        } catch (RuntimeException e) {
+            degraded = true;
+            log.warn("Keyword snapshot poll failed, serving snapshot {} synced at {}: {}",
+                    snapshot != null ? snapshot.getVersion() : "none", lastSyncedAt, e.getMessage());
+            if (snapshot == null) {
+                loadLastKnownGood();
+            }
+        }
+    }
+
+    private void refreshQuietly(long ticket) {
+        try {
+            refresh(ticket);
+        } catch (RuntimeException e) {
+            log.error("Keyword snapshot refresh failed, keeping the previous snapshot: {}", e.getMessage(), e);
+        }
+    }
+
+    private KeywordSnapshot build() {
+        long start = System.nanoTime();
+        // Read the version before the words: a concurrent change then only makes the image look stale
+        long version = databaseCircuit.call(keywordService::getKeywordSetVersion);
+
+        List<String> words = null;
+        KeywordMatcher matcher = mapImage(version);
+        if (matcher == null) {
+            words = databaseCircuit.call(keywordService::getAllKeywordWords);
+            matcher = KeywordMatchers.compile(keywordProperties.getMatcher().getType(), words);
+            writeImage(matcher, version);
+        } else if (keywordProperties.getFuzzy().isEnabled()) {
+            // The image holds only the exact matcher
+            words = databaseCircuit.call(keywordService::getAllKeywordWords);
+        }
+        CandidateFilter candidateFilter = buildCandidateFilter(matcher);
+        TokenBloomFilter tokenFilter = buildTokenFilter(matcher);
+        FuzzyKeywordIndex fuzzyIndex = buildFuzzyIndex(words);
+        long[] keywordIds = loadKeywordIds(matcher.keywordCount());
+        Duration buildDuration = Duration.ofNanos(System.nanoTime() - start);
+
+        log.info("Built keyword snapshot {}: {} keywords, {} states in {} ms",
+                version, matcher.keywordCount(), matcher.stateCount(), buildDuration.toMillis());
+        return KeywordSnapshot.builder()
+                .version(version)
+                .matcher(matcher)
+                .builtAt(Instant.now())
+                .buildDuration(buildDuration)
+                .candidateFilter(candidateFilter)
+                .tokenFilter(tokenFilter)
+                .fuzzyIndex(fuzzyIndex)
+                .keywordIds(keywordIds)
+                // Counts without ids could not be attributed to a keyword
+                .hitCounters(keywordProperties.getStatistics().isEnabled() && keywordIds != null
+                        ? new KeywordHitCounters(matcher.keywordCount()) : null)
+                .words(words)
+                .build();
+    }
+
+    // Both lists are ordered by id; a keyword added or removed in between shows as a size mismatch,
+    // and the version change it made gets the snapshot rebuilt on the next poll
+    private long[] loadKeywordIds(int keywordCount) {
+        List<Long> ids = databaseCircuit.call(keywordService::getAllKeywordIds);
+        if (ids.size() != keywordCount) {
+            log.debug("Read {} keyword ids for {} keywords, match reports will not carry ids",
+                    ids.size(), keywordCount);
+            return null;
+        }
+        long[] keywordIds = new long[keywordCount];
+        for (int i = 0; i < keywordCount; i++) {
+            keywordIds[i] = ids.get(i);
+        }
+        return keywordIds;
+    }
+
+    private FuzzyKeywordIndex buildFuzzyIndex(List<String> words) {
+        KeywordProperties.Fuzzy fuzzy = keywordProperties.getFuzzy();
+        if (!fuzzy.isEnabled()) {
+            return null;
+        }
+        FuzzyKeywordIndex index = FuzzyKeywordIndex.build(keywordProperties.getMatcher().getType(), words,
+                fuzzy.getBudget());
+        log.debug("Built fuzzy keyword index with {} states", index.stateCount());
+        return index;
+    }
+
+    private TokenBloomFilter buildTokenFilter(KeywordMatcher matcher) {
+        return keywordProperties.getTokenFilter().isEnabled() ? TokenBloomFilter.build(matcher) : null;
+    }
+
+    private CandidateFilter buildCandidateFilter(KeywordMatcher matcher) {
+        KeywordProperties.Prefilter prefilter = keywordProperties.getPrefilter();
+        if (!prefilter.isEnabled()) {
+            return null;
+        }
+        CandidateFilter filter = KeywordMatchers.candidateFilter(matcher, prefilter.isVectorized());
+        log.debug("Using {} for raw UTF-8 masking", filter.getClass().getSimpleName());
+        return filter;
+    }
+
+    // Without a database the last image written is better than refusing to mask at all
+    private void loadLastKnownGood() {
+        KeywordProperties.Image image = keywordProperties.getImage();
+        if (!isImageEnabled() || !Files.exists(image.getPath())) {
+            return;
+        }
+        try {
+            MatcherImage mapped = MatcherImage.map(image.getPath(), image.isVerifyPayload());
+            KeywordSnapshot lastKnownGood = new KeywordSnapshot(mapped.getKeywordSetVersion(), mapped.getMatcher(),
+                    Files.getLastModifiedTime(image.getPath()).toInstant(), Duration.ZERO,
+                    buildCandidateFilter(mapped.getMatcher()), buildTokenFilter(mapped.getMatcher()));
+            synchronized (publishLock) {
+                if (snapshot != null) {
+                    return;
+                }
+                snapshot = lastKnownGood;
+                degraded = true;
+            }
+            log.warn("Database unavailable, serving last-known-good matcher image {} (version {}, written {})",
+                    image.getPath(), lastKnownGood.getVersion(), lastKnownGood.getBuiltAt());
+        } catch (IOException e) {
+            log.warn("Ignoring unreadable matcher image {}: {}", image.getPath(), e.getMessage());
+        }
+    }
+
+    private KeywordMatcher mapImage(long version) {
+        KeywordProperties.Image image = keywordProperties.getImage();
+        if (!isImageEnabled() || !Files.exists(image.getPath())) {
+            return null;
+        }
+        try {
+            MatcherImage mapped = MatcherImage.map(image.getPath(), image.isVerifyPayload());
+            if (mapped.getKeywordSetVersion() != version) {
+                log.info("Matcher image {} is stale (version {}, database {}), rebuilding",
+                        image.getPath(), mapped.getKeywordSetVersion(), version);
+                return null;
+            }
+            return mapped.getMatcher();
+        } catch (IOException e) {
+            log.warn("Ignoring unreadable matcher image {}: {}", image.getPath(), e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeImage(KeywordMatcher matcher, long version) {
+        if (!isImageEnabled()) {
+            return;
+        }
+        try {
+            MatcherImage.write(keywordProperties.getImage().getPath(), (CompactKeywordMatcher) matcher, version);
+        } catch (IOException e) {
+            log.warn("Could not write matcher image {}: {}", keywordProperties.getImage().getPath(), e.getMessage());
+        }
+    }
+
+    // Only the COMPACT layout has an on-disk form
+    private boolean isImageEnabled() {
+        return keywordProperties.getImage().isEnabled()
+                && keywordProperties.getMatcher().getType() == MatcherType.COMPACT;
+    }
+}
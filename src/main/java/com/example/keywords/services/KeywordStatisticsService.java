@@ -0,0 +1,14 @@
+package com.example.keywords.services;
+
+import com.example.keywords.dto.KeywordHitsDTO;
+
+import java.util.List;
+
+public interface KeywordStatisticsService {
+
+    // Writes the counts gathered since the last flush; kept for the next flush if the write fails
+    public void flush();
+
+    // Most matched keywords first, or with leastHit those matched least, including never
+    public List<KeywordHitsDTO> getKeywordHits(int limit, boolean leastHit);
+}
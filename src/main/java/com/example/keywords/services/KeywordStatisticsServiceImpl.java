@@ -0,0 +1,94 @@
+package com.example.keywords.services;
+
+import com.example.keywords.config.KeywordProperties;
+import com.example.keywords.dto.KeywordHitsDTO;
+import com.example.keywords.exception.ValidationException;
+import com.example.keywords.repository.KeywordStatisticsRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class KeywordStatisticsServiceImpl implements KeywordStatisticsService {
+
+    static final int MAX_LIMIT = 1000;
+
+    private final KeywordSnapshotService keywordSnapshotService;
+    private final KeywordStatisticsRepository keywordStatisticsRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final KeywordProperties keywordProperties;
+
+    // Counts drained from snapshots but not yet written, by keyword id; guarded by this
+    private final Map<Long, Long> pending = new HashMap<>();
+
+    private final ScheduledExecutorService flushExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "keyword-statistics-flush");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startFlushing() {
+        KeywordProperties.Statistics statistics = keywordProperties.getStatistics();
+        Duration interval = statistics.getFlushInterval();
+        if (statistics.isEnabled() && interval.isPositive()) {
+            flushExecutor.scheduleWithFixedDelay(this::flushQuietly, interval.toMillis(), interval.toMillis(),
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flushExecutor.shutdownNow();
+        flushQuietly();
+    }
+
+    public synchronized void flush() {
+        // Snapshots replaced since the last flush were drained by the snapshot service as they went
+        keywordSnapshotService.drainRetiredHits().forEach((id, count) -> pending.merge(id, count, Long::sum));
+        keywordSnapshotService.findSnapshot().ifPresent(snapshot -> snapshot.drainHits(pending));
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        Map<Long, Long> hits = new HashMap<>(pending);
+        transactionTemplate.executeWithoutResult(status ->
+                keywordStatisticsRepository.addHits(hits, LocalDateTime.now()));
+        pending.clear();
+        log.debug("Flushed match counts of {} keywords", hits.size());
+    }
+
+    public List<KeywordHitsDTO> getKeywordHits(int limit, boolean leastHit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new ValidationException(String.format("Limit must be between 1 and %d", MAX_LIMIT));
+        }
+        PageRequest page = PageRequest.of(0, limit);
+        return leastHit
+                ? keywordStatisticsRepository.findLeastHit(page)
+                : keywordStatisticsRepository.findMostHit(page);
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("Keyword statistics flush failed, keeping the counts for the next one: {}", e.getMessage());
+        }
+    }
+}
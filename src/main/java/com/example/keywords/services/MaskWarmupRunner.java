@@ -0,0 +1,172 @@
+package com.example.keywords.services;
+
+import com.example.keywords.config.KeywordProperties;
+import com.example.keywords.matcher.KeywordMatcher;
+import com.example.keywords.matcher.KeywordSnapshot;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+
+/**
+ * Runs synthetic masking traffic through {@link StringMaskService} so that the matcher is JIT-compiled
+ * before the first real request. Each iteration takes the next of the String mask, the raw UTF-8 mask,
+ * detection and the any-match check, which compile to different scan loops. It runs inside the
+ * {@link ApplicationReadyEvent} listeners, and Spring Boot only switches readiness to ACCEPTING_TRAFFIC
+ * once they have all returned. Its matches are kept out of the keyword statistics.
+ *
+ * <p>Inputs are built from the loaded snapshot, not the database, so an instance serving a
+ * last-known-good image while the database is down still warms up.
+ */
+@Slf4j
+@Component
+public class MaskWarmupRunner {
+
+    private static final String[] FILLER = {
+            "customer", "order", "value", "id", "42", "total", "name", "the", "and", "status", "2024-01-15"
+    };
+    private static final String[] SEPARATORS = {" ", " ", " ", ", ", "; ", "\n", " = ", "("};
+    // Bounds the matcher walk for a snapshot without words, which on an automaton could visit every state
+    private static final int WALK_STATES_PER_KEYWORD = 64;
+
+    private final StringMaskService stringMaskService;
+    private final KeywordSnapshotService keywordSnapshotService;
+    private final KeywordProperties.Warmup properties;
+
+    private volatile long completedIterations;
+    private volatile long durationMillis;
+
+    public MaskWarmupRunner(StringMaskService stringMaskService, KeywordSnapshotService keywordSnapshotService,
+                            KeywordProperties keywordProperties, MeterRegistry meterRegistry) {
+        this.stringMaskService = stringMaskService;
+        this.keywordSnapshotService = keywordSnapshotService;
+        this.properties = keywordProperties.getWarmup();
+
+        Gauge.builder("keywords.warmup.iterations", this, runner -> runner.completedIterations)
+                .description("Mask calls made during the startup warm-up")
+                .register(meterRegistry);
+        Gauge.builder("keywords.warmup.duration", this, runner -> runner.durationMillis)
+                .description("Time spent in the startup warm-up")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUpBeforeReadiness() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        // A failed warm-up only costs latency; it must not keep a degraded instance from starting
+        try {
+            run();
+        } catch (RuntimeException e) {
+            log.warn("Masking warm-up skipped: {}", e.getMessage());
+        }
+    }
+
+    public void run() {
+        List<String> inputs = generateInputs(keywordSnapshotService.getSnapshot());
+        List<byte[]> utf8Inputs = inputs.stream().map(input -> input.getBytes(StandardCharsets.UTF_8)).toList();
+        long start = System.nanoTime();
+        long deadline = start + properties.getMaxDuration().toNanos();
+        long iterations = 0;
+
+        while (iterations < properties.getIterations() && System.nanoTime() < deadline) {
+            int i = (int) ((iterations / 4) % inputs.size());
+            switch ((int) (iterations % 4)) {
+                case 0 -> stringMaskService.maskSensitiveWords(inputs.get(i), false);
+                // Masked in place, so every call gets its own copy
+                case 1 -> stringMaskService.maskSensitiveWords(utf8Inputs.get(i).clone(), false);
+                case 2 -> stringMaskService.detectSensitiveWords(inputs.get(i), false);
+                default -> stringMaskService.containsSensitiveWords(inputs.get(i));
+            }
+            iterations++;
+        }
+
+        completedIterations = iterations;
+        durationMillis = (System.nanoTime() - start) / 1_000_000;
+        log.info("Masking warm-up finished: {} iterations over {} inputs in {} ms",
+                iterations, inputs.size(), durationMillis);
+    }
+
+    public long getCompletedIterations() {
+        return completedIterations;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    private List<String> generateInputs(KeywordSnapshot snapshot) {
+        List<String> keywords = new ArrayList<>(snapshot.getWords() != null ? snapshot.getWords()
+                : spellKeywords(snapshot.getMatcher(), properties.getSampleKeywords()));
+        Random random = new Random(keywords.size());
+        while (keywords.size() > properties.getSampleKeywords()) {
+            keywords.remove(random.nextInt(keywords.size()));
+        }
+
+        // One mostly-keyword and one keyword-free input per size, so both scan paths get compiled
+        List<String> inputs = new ArrayList<>();
+        for (int size : properties.getInputSizes()) {
+            int length = Math.min(size, StringMaskService.MAX_INPUT_LENGTH);
+            inputs.add(generateText(random, keywords, length, 0.3));
+            inputs.add(generateText(random, keywords, length, 0.0));
+        }
+        return inputs;
+    }
+
+    // Keywords the matcher accepts, shortest first, for a snapshot mapped from an image without its words;
+    // a wildcard edge is spelled with a letter it accepts
+    private static List<String> spellKeywords(KeywordMatcher matcher, int limit) {
+        List<String> keywords = new ArrayList<>();
+        Map<Integer, String> prefixes = new HashMap<>();
+        Queue<Integer> queue = new ArrayDeque<>();
+        prefixes.put(KeywordMatcher.ROOT, "");
+        queue.add(KeywordMatcher.ROOT);
+        while (!queue.isEmpty() && keywords.size() < limit
+                && prefixes.size() < (long) limit * WALK_STATES_PER_KEYWORD) {
+            int state = queue.poll();
+            String prefix = prefixes.get(state);
+            if (matcher.keywordIndex(state) >= 0) {
+                keywords.add(prefix);
+            }
+            matcher.forEachTransition(state, (label, target) -> {
+                if (!prefixes.containsKey(target)) {
+                    prefixes.put(target, prefix + (label == KeywordMatcher.WILDCARD ? 'X' : label));
+                    queue.add(target);
+                }
+            });
+        }
+        return keywords;
+    }
+
+    private static String generateText(Random random, List<String> keywords, int length, double keywordRatio) {
+        StringBuilder text = new StringBuilder(length + 32);
+        while (text.length() < length) {
+            if (!keywords.isEmpty() && random.nextDouble() < keywordRatio) {
+                String keyword = keywords.get(random.nextInt(keywords.size()));
+                text.append(random.nextBoolean() ? keyword : keyword.toLowerCase(Locale.ROOT));
+            } else {
+                text.append(FILLER[random.nextInt(FILLER.length)]);
+            }
+            text.append(SEPARATORS[random.nextInt(SEPARATORS.length)]);
+        }
+        text.setLength(length);
+        return text.toString().isBlank() ? "warm-up" : text.toString();
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.keywords.services;
 
+import com.example.keywords.dto.DetectResponseDTO;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
@@ -10,5 +11,26 @@ import java.util.regex.Pattern;
 
 public interface StringMaskService {
 
+    // Longest input accepted, in chars
+    int MAX_INPUT_LENGTH = 10000;
+    // Longest UTF-8 input that can still hold MAX_INPUT_LENGTH chars: at most three bytes per char
+    int MAX_INPUT_UTF8_BYTES = 3 * MAX_INPUT_LENGTH;
+
     public String maskSensitiveWords(String input);
+
+    // With countHits false the matches stay out of the keyword statistics; for synthetic traffic such as the warm-up
+    public String maskSensitiveWords(String input, boolean countHits);
+
+    // Masks UTF-8 text in place; returns the same array unless masking non-ASCII chars shortened it
+    public byte[] maskSensitiveWords(byte[] utf8);
+
+    public byte[] maskSensitiveWords(byte[] utf8, boolean countHits);
+
+    // Where keywords occur, from the same snapshot and with the same matches as masking
+    public DetectResponseDTO detectSensitiveWords(String input);
+
+    public DetectResponseDTO detectSensitiveWords(String input, boolean countHits);
+
+    // Stops at the first match
+    public boolean containsSensitiveWords(String input);
 }
\ No newline at end of file
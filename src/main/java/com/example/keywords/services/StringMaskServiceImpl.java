@@ -1,70 +1,234 @@
 package com.example.keywords.services;
 
+import com.example.keywords.dto.DetectResponseDTO;
 import com.example.keywords.exception.BusinessRuleException;
+import com.example.keywords.exception.ServiceUnavailableException;
 import com.example.keywords.exception.ValidationException;
+import com.example.keywords.matcher.FuzzyKeywordIndex;
+import com.example.keywords.matcher.KeywordHitCounters;
+import com.example.keywords.matcher.KeywordSnapshot;
+import com.example.keywords.matcher.MatchHandler;
+import com.example.keywords.matcher.TokenBloomFilter;
+import com.example.keywords.matcher.Utf8;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.Map;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class StringMaskServiceImpl implements StringMaskService{
-        private final KeywordService keywordService;
-        private static final int MAX_INPUT_LENGTH = 10000;
+        private final KeywordSnapshotService keywordSnapshotService;
+        // Longer input almost always has some token that passes the filter, so checking would only add work
+        static final int TOKEN_FILTER_MAX_LENGTH = 256;
+        // Same as the @NotBlank message of MaskRequestDTO
+        private static final String BLANK_INPUT_MESSAGE = "Input text is required";
 
         public String maskSensitiveWords(String input) {
+            return maskSensitiveWords(input, true);
+        }
+
+        public String maskSensitiveWords(String input, boolean countHits) {
             // Validate input
             validateInput(input);
 
             try {
-                List<String> keywords = keywordService.getAllKeywordWords();
+                KeywordSnapshot snapshot = keywordSnapshotService.getSnapshot();
 
-                if (keywords.isEmpty()) {
+                if (snapshot.isEmpty()) {
                     log.warn("No keywords found in database for masking");
                     return input;
                 }
 
-                // Sort keywords by length (longest first) to avoid partial matches
-                keywords.sort((a, b) -> Integer.compare(b.length(), a.length()));
+                String masked = mask(snapshot, input, countHits);
 
-                String masked = input;
-                log.info("masked {}", masked);
+                log.debug("Successfully masked input. Original length: {}, Masked length: {}",
+                        input.length(), masked.length());
 
-                for (String keyword : keywords) {
-                    // Create a regex pattern that matches the whole word (case-insensitive)
-                    String regex = "\\b" + Pattern.quote(keyword) + "\\b";
-                    Pattern pattern = Pattern.compile(regex, Pattern.CASE_INSENSITIVE);
-                    Matcher matcher = pattern.matcher(masked);
+                return masked;
 
-                    // Replace with asterisks of same length
-                    StringBuffer sb = new StringBuffer();
-                    while (matcher.find()) {
-                        String matchedWord = matcher.group();
-                        log.info(" matchedWord {}", matchedWord);
-                        String replacement = "*".repeat(matchedWord.length());
-                        log.info("replacement {}",replacement);
-                        matcher.appendReplacement(sb, replacement);
-                    }
-                    matcher.appendTail(sb);
-                    masked = sb.toString();
+            } catch (ServiceUnavailableException e) {
+                throw e;
+            } catch (Exception e) {
+                log.error("Error during text masking: {}", e.getMessage(), e);
+                throw new BusinessRuleException("Failed to mask sensitive words: " + e.getMessage(), e);
+            }
+        }
+
+        public byte[] maskSensitiveWords(byte[] utf8) {
+            return maskSensitiveWords(utf8, true);
+        }
+
+        public byte[] maskSensitiveWords(byte[] utf8, boolean countHits) {
+            validateInput(utf8);
+
+            try {
+                KeywordSnapshot snapshot = keywordSnapshotService.getSnapshot();
+
+                if (snapshot.isEmpty()) {
+                    log.warn("No keywords found in database for masking");
+                    return utf8;
                 }
 
-                log.debug("Successfully masked input. Original length: {}, Masked length: {}",
-                        input.length(), masked.length());
+                // Fuzzy matches can overlap exact ones, which the in-place UTF-8 writer cannot take
+                if (snapshot.getFuzzyIndex() != null) {
+                    return mask(snapshot, new String(utf8, StandardCharsets.UTF_8), countHits)
+                            .getBytes(StandardCharsets.UTF_8);
+                }
+
+                Utf8MaskingHandler handler = new Utf8MaskingHandler(utf8, countHits ? snapshot.getHitCounters() : null);
+                snapshot.getMatcher().scanUtf8(utf8, utf8.length, snapshot.getCandidateFilter(), handler);
+                byte[] masked = handler.result();
+
+                log.debug("Successfully masked UTF-8 input. Original bytes: {}, Masked bytes: {}",
+                        utf8.length, masked.length);
 
                 return masked;
 
+            } catch (ServiceUnavailableException e) {
+                throw e;
             } catch (Exception e) {
                 log.error("Error during text masking: {}", e.getMessage(), e);
                 throw new BusinessRuleException("Failed to mask sensitive words: " + e.getMessage(), e);
             }
         }
 
+        public DetectResponseDTO detectSensitiveWords(String input) {
+            return detectSensitiveWords(input, true);
+        }
+
+        public DetectResponseDTO detectSensitiveWords(String input, boolean countHits) {
+            validateInput(input);
+
+            try {
+                KeywordSnapshot snapshot = keywordSnapshotService.getSnapshot();
+                DetectionHandler exact = new DetectionHandler();
+                DetectionHandler fuzzy = new DetectionHandler();
+                if (!snapshot.isEmpty()) {
+                    if (exactMayMatch(snapshot, input)) {
+                        snapshot.getMatcher().scan(input, exact);
+                    }
+                    scanFuzzy(snapshot.getFuzzyIndex(), input, fuzzy);
+                }
+                return exact.report(fuzzy, snapshot, countHits ? snapshot.getHitCounters() : null);
+
+            } catch (ServiceUnavailableException e) {
+                throw e;
+            } catch (Exception e) {
+                log.error("Error during keyword detection: {}", e.getMessage(), e);
+                throw new BusinessRuleException("Failed to detect sensitive words: " + e.getMessage(), e);
+            }
+        }
+
+        public boolean containsSensitiveWords(String input) {
+            validateInput(input);
+
+            try {
+                KeywordSnapshot snapshot = keywordSnapshotService.getSnapshot();
+                if (snapshot.isEmpty()) {
+                    return false;
+                }
+                boolean[] found = new boolean[1];
+                MatchHandler firstMatch = (start, end, keywordIndex) -> {
+                    found[0] = true;
+                    return false;
+                };
+                if (exactMayMatch(snapshot, input)) {
+                    snapshot.getMatcher().scan(input, firstMatch);
+                }
+                FuzzyKeywordIndex fuzzyIndex = snapshot.getFuzzyIndex();
+                if (!found[0] && fuzzyIndex != null) {
+                    fuzzyIndex.scan(input, firstMatch);
+                }
+                return found[0];
+
+            } catch (ServiceUnavailableException e) {
+                throw e;
+            } catch (Exception e) {
+                log.error("Error during keyword detection: {}", e.getMessage(), e);
+                throw new BusinessRuleException("Failed to detect sensitive words: " + e.getMessage(), e);
+            }
+        }
+
+        // What String.trim would leave empty: only bytes up to U+0020, which never occur inside a multi-byte char
+        private static boolean isBlank(byte[] utf8) {
+            for (byte b : utf8) {
+                if (b < 0 || b > ' ') {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // Identifiers and single tokens mostly contain no keyword; skip the trie walk for them
+        private static boolean exactMayMatch(KeywordSnapshot snapshot, String input) {
+            TokenBloomFilter tokenFilter = snapshot.getTokenFilter();
+            return tokenFilter == null || input.length() > TOKEN_FILTER_MAX_LENGTH || tokenFilter.mightMatch(input);
+        }
+
+        private String mask(KeywordSnapshot snapshot, String input, boolean countHits) {
+            boolean exactMayMatch = exactMayMatch(snapshot, input);
+            FuzzyKeywordIndex fuzzyIndex = snapshot.getFuzzyIndex();
+            if (!exactMayMatch && fuzzyIndex == null) {
+                return input;
+            }
+
+            KeywordHitCounters hitCounters = countHits ? snapshot.getHitCounters() : null;
+            if (fuzzyIndex == null) {
+                // Single pass over the input; leftmost-longest matches win over shorter keywords
+                MaskingHandler handler = new MaskingHandler(input, hitCounters);
+                snapshot.getMatcher().scan(input, handler);
+                return handler.result();
+            }
+
+            // Disguised keywords on top; the exact matches stand even if the fuzzy scan runs out of time
+            DetectionHandler exact = new DetectionHandler();
+            DetectionHandler fuzzy = new DetectionHandler();
+            if (exactMayMatch) {
+                snapshot.getMatcher().scan(input, exact);
+            }
+            scanFuzzy(fuzzyIndex, input, fuzzy);
+            MaskingHandler handler = new MaskingHandler(input, null);
+            exact.replay(handler);
+            fuzzy.replay(handler);
+            // Most exact matches are found again by the fuzzy scan; count each of those once
+            if (hitCounters != null) {
+                exact.merge(fuzzy, (start, end, keywordIndex) -> {
+                    hitCounters.increment(keywordIndex);
+                    return true;
+                });
+            }
+            return handler.result();
+        }
+
+        private static void scanFuzzy(FuzzyKeywordIndex fuzzyIndex, String input, MatchHandler handler) {
+            if (fuzzyIndex != null && !fuzzyIndex.scan(input, handler)) {
+                log.debug("Fuzzy keyword scan ran out of its budget on input of length {}", input.length());
+            }
+        }
+
+        private void validateInput(byte[] utf8) {
+            if (utf8 == null) {
+                throw new ValidationException("Input cannot be null");
+            }
+            if (isBlank(utf8)) {
+                throw new ValidationException(BLANK_INPUT_MESSAGE);
+            }
+
+            // Every char takes at least one byte, so only long bodies need counting
+            if (utf8.length > MAX_INPUT_LENGTH && Utf8.utf16Length(utf8, 0, utf8.length) > MAX_INPUT_LENGTH) {
+                throw new ValidationException(
+                        String.format("Input exceeds maximum length of %d characters", MAX_INPUT_LENGTH));
+            }
+        }
+
         private void validateInput(String input) {
             if (input == null) {
                 throw new ValidationException("Input cannot be null");
@@ -75,9 +239,141 @@ public class StringMaskServiceImpl implements StringMaskService{
                         String.format("Input exceeds maximum length of %d characters", MAX_INPUT_LENGTH));
             }
 
-            // Additional validation if needed
+            // Rejected like a blank JSON input, so every entry point answers the same
             if (input.trim().isEmpty()) {
-                log.info("Empty input provided for masking");
+                throw new ValidationException(BLANK_INPUT_MESSAGE);
+            }
+        }
+
+        // Collects matches in scan order as start, end and keyword index triples
+        private static final class DetectionHandler implements MatchHandler {
+            private int[] matches = new int[24];
+            private int size;
+
+            @Override
+            public boolean onMatch(int start, int end, int keywordIndex) {
+                if (size == matches.length) {
+                    matches = Arrays.copyOf(matches, size * 2);
+                }
+                matches[size++] = start;
+                matches[size++] = end;
+                matches[size++] = keywordIndex;
+                return true;
+            }
+
+            private void replay(MatchHandler handler) {
+                for (int i = 0; i < size; i += 3) {
+                    handler.onMatch(matches[i], matches[i + 1], matches[i + 2]);
+                }
+            }
+
+            // Exact matches plus the fuzzy matches that do not overlap one, in input order
+            private void merge(DetectionHandler fuzzy, MatchHandler handler) {
+                int e = 0;
+                int f = 0;
+                while (e < size || f < fuzzy.size) {
+                    if (f == fuzzy.size || (e < size && matches[e] <= fuzzy.matches[f])) {
+                        handler.onMatch(matches[e], matches[e + 1], matches[e + 2]);
+                        e += 3;
+                        continue;
+                    }
+                    int start = fuzzy.matches[f];
+                    int end = fuzzy.matches[f + 1];
+                    // Exact matches do not overlap each other, so only the two around this one can overlap it
+                    if ((e == 0 || matches[e - 2] <= start) && (e == size || matches[e] >= end)) {
+                        handler.onMatch(start, end, fuzzy.matches[f + 2]);
+                    }
+                    f += 3;
+                }
+            }
+
+            private DetectResponseDTO report(DetectionHandler fuzzy, KeywordSnapshot snapshot,
+                                             KeywordHitCounters hitCounters) {
+                List<DetectResponseDTO.Match> merged = new ArrayList<>((size + fuzzy.size) / 3);
+                Map<Long, Integer> counts = new LinkedHashMap<>();
+                merge(fuzzy, (start, end, keywordIndex) -> {
+                    Long keywordId = snapshot.keywordId(keywordIndex);
+                    merged.add(new DetectResponseDTO.Match(start, end, keywordId));
+                    if (keywordId != null) {
+                        counts.merge(keywordId, 1, Integer::sum);
+                    }
+                    if (hitCounters != null) {
+                        hitCounters.increment(keywordIndex);
+                    }
+                    return true;
+                });
+                return DetectResponseDTO.builder()
+                        .found(!merged.isEmpty())
+                        .matchCount(merged.size())
+                        .matches(merged)
+                        .keywordCounts(counts)
+                        .build();
+            }
+        }
+
+        private static final class MaskingHandler implements MatchHandler {
+            private final String input;
+            private final KeywordHitCounters hitCounters;
+            private char[] masked;
+
+            private MaskingHandler(String input, KeywordHitCounters hitCounters) {
+                this.input = input;
+                this.hitCounters = hitCounters;
+            }
+
+            @Override
+            public boolean onMatch(int start, int end, int keywordIndex) {
+                if (hitCounters != null) {
+                    hitCounters.increment(keywordIndex);
+                }
+                if (masked == null) {
+                    masked = input.toCharArray();
+                }
+                // Replace with asterisks of same length
+                Arrays.fill(masked, start, end, '*');
+                return true;
+            }
+
+            private String result() {
+                return masked == null ? input : new String(masked);
+            }
+        }
+
+        // Writes masked bytes back into the request buffer; a match never gets longer than its bytes
+        private static final class Utf8MaskingHandler implements MatchHandler {
+            private final byte[] utf8;
+            private final KeywordHitCounters hitCounters;
+            private int read;
+            private int write;
+
+            private Utf8MaskingHandler(byte[] utf8, KeywordHitCounters hitCounters) {
+                this.utf8 = utf8;
+                this.hitCounters = hitCounters;
+            }
+
+            @Override
+            public boolean onMatch(int start, int end, int keywordIndex) {
+                if (hitCounters != null) {
+                    hitCounters.increment(keywordIndex);
+                }
+                if (write != read) {
+                    System.arraycopy(utf8, read, utf8, write, start - read);
+                }
+                write += start - read;
+                // One asterisk per UTF-16 char, like the String path
+                int stars = Utf8.utf16Length(utf8, start, end);
+                Arrays.fill(utf8, write, write + stars, (byte) '*');
+                write += stars;
+                read = end;
+                return true;
+            }
+
+            private byte[] result() {
+                if (write == read) {
+                    return utf8;
+                }
+                System.arraycopy(utf8, read, utf8, write, utf8.length - read);
+                return Arrays.copyOf(utf8, write + utf8.length - read);
             }
         }
-    }
\ No newline at end of file
+    }
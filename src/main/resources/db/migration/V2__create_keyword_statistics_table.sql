@@ -0,0 +1,7 @@
+-- src/main/resources/db/migration/V2__create_keyword_statistics_table.sql
+-- No foreign key: instances keep adding counts for a keyword for up to one flush after it is deleted
+CREATE TABLE dbo.keyword_statistics (
+    keyword_id BIGINT PRIMARY KEY,
+    hit_count BIGINT NOT NULL,
+    last_hit_at DATETIME
+);
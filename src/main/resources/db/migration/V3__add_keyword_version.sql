@@ -0,0 +1,2 @@
+-- Optimistic locking for keyword updates; existing rows start at version 0
+ALTER TABLE dbo.keywords ADD version BIGINT NOT NULL CONSTRAINT DF_keywords_version DEFAULT 0;
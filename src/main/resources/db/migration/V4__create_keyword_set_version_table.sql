@@ -0,0 +1,23 @@
+-- src/main/resources/db/migration/V4__create_keyword_set_version_table.sql
+-- Single-row counter that every write to dbo.keywords bumps in its own transaction, so instances can
+-- tell with one indexed read whether their keyword snapshot is current
+CREATE TABLE dbo.keyword_set_version (
+    id INT NOT NULL PRIMARY KEY CHECK (id = 1),
+    version BIGINT NOT NULL
+);
+
+INSERT INTO dbo.keyword_set_version (id, version) VALUES (1, 1);
+GO
+
+-- A trigger rather than application code, so writes from any instance or tool are counted too;
+-- concurrent keyword writers queue on the counter row until the first one commits
+CREATE TRIGGER dbo.tr_keywords_set_version ON dbo.keywords
+AFTER INSERT, UPDATE, DELETE
+AS
+BEGIN
+    SET NOCOUNT ON;
+    IF NOT EXISTS (SELECT 1 FROM inserted) AND NOT EXISTS (SELECT 1 FROM deleted)
+        RETURN;
+    UPDATE dbo.keyword_set_version SET version = version + 1 WHERE id = 1;
+END;
+GO
@@ -0,0 +1,106 @@
+package com.example.keywords;
+
+import com.example.keywords.dto.KeywordDTO;
+import com.example.keywords.exception.DuplicateResourceException;
+import com.example.keywords.exception.ResourceNotFoundException;
+import com.example.keywords.model.Keyword;
+import com.example.keywords.services.KeywordService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "keywords.cache.keyword.heap-entries=2",
+        "keywords.cache.keyword.off-heap=1MB",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@ActiveProfiles("test")
+class HibernateCacheIntegrationTest {
+
+    @Autowired
+    private KeywordService keywordService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final List<Long> created = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        created.forEach(keywordService::deleteKeyword);
+    }
+
+    @Test
+    void keywordsBeyondTheHeapTierStayCachedOffHeap() {
+        for (String word : List.of("ALPHA", "BRAVO", "CHARLIE", "DELTA", "ECHO")) {
+            KeywordDTO dto = new KeywordDTO();
+            dto.setWord(word);
+            created.add(keywordService.createKeyword(dto).getId());
+        }
+        Cache cache = entityManagerFactory.getCache();
+        cache.evictAll();
+
+        created.forEach(keywordService::getKeywordById);
+        created.forEach(keywordService::getKeywordById);
+
+        for (Long id : created) {
+            assertTrue(cache.contains(Keyword.class, id), "keyword " + id + " is cached");
+        }
+        double hits = meterRegistry.get("cache.gets")
+                .tags("cache", Keyword.class.getName(), "result", "hit")
+                .functionCounter().count();
+        assertTrue(hits >= created.size(), "hits: " + hits);
+        assertEquals(2, meterRegistry.find("cache.puts").tags("cacheManager", "hibernate").meters().size());
+    }
+
+    @Test
+    void lookupsAndDuplicateChecksByWordRunNoSqlOnceCached() {
+        KeywordDTO dto = new KeywordDTO();
+        dto.setWord("FOXTROT");
+        created.add(keywordService.createKeyword(dto).getId());
+        keywordService.getKeywordByWord("foxtrot");
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        // Counted per region, since the snapshot refresh may run queries of its own meanwhile
+        long naturalIdQueries = statistics.getNaturalIdQueryExecutionCount();
+        long entityMisses = statistics.getDomainDataRegionStatistics(Keyword.class.getName()).getMissCount();
+
+        assertEquals(created.get(0), keywordService.getKeywordByWord("foxtrot").getId());
+        assertThrows(DuplicateResourceException.class, () -> keywordService.createKeyword(dto));
+
+        assertEquals(naturalIdQueries, statistics.getNaturalIdQueryExecutionCount());
+        assertEquals(entityMisses, statistics.getDomainDataRegionStatistics(Keyword.class.getName()).getMissCount());
+        assertTrue(statistics.getNaturalIdCacheHitCount() >= 2);
+    }
+
+    @Test
+    void renamedKeywordsResolveByTheirNewWordOnly() {
+        KeywordDTO dto = new KeywordDTO();
+        dto.setWord("GOLF");
+        Long id = keywordService.createKeyword(dto).getId();
+        created.add(id);
+        keywordService.getKeywordByWord("GOLF");
+
+        dto.setWord("HOTEL");
+        keywordService.updateKeyword(id, dto);
+
+        assertEquals(id, keywordService.getKeywordByWord("HOTEL").getId());
+        assertThrows(ResourceNotFoundException.class, () -> keywordService.getKeywordByWord("GOLF"));
+    }
+}
@@ -0,0 +1,187 @@
+package com.example.keywords;
+
+import com.example.keywords.services.KeywordService;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Load against an H2 pool of {@value #POOL_SIZE} connections: more concurrent readers than
+ * connections first queue for one, then time out once a connection is held longer than the
+ * connection timeout. The exported acquire timer and timeout counter show both.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:pooltest;DB_CLOSE_DELAY=-1;MODE=MSSQLServer",
+        "spring.datasource.hikari.pool-name=KeywordDBPool",
+        "spring.datasource.hikari.maximum-pool-size=" + HikariPoolIntegrationTest.POOL_SIZE,
+        "spring.datasource.hikari.minimum-idle=" + HikariPoolIntegrationTest.POOL_SIZE,
+        "spring.datasource.hikari.connection-timeout=500",
+        "spring.datasource.hikari.leak-detection-threshold=5000"
+})
+@ActiveProfiles("test")
+class HikariPoolIntegrationTest {
+
+    static final int POOL_SIZE = 4;
+    private static final int CLIENTS = 12;
+
+    @Autowired
+    private KeywordService keywordService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void poolMetricsAreExported() {
+        for (String gauge : List.of("hikaricp.connections.active", "hikaricp.connections.idle",
+                "hikaricp.connections.pending", "hikaricp.connections.max")) {
+            meterRegistry.get(gauge).tag("pool", "KeywordDBPool").gauge();
+        }
+        meterRegistry.get("hikaricp.connections.acquire").tag("pool", "KeywordDBPool").timer();
+        assertEquals(POOL_SIZE, gauge("hikaricp.connections.max"));
+    }
+
+    @Test
+    void readersBeyondThePoolSizeQueueForAConnection() throws Exception {
+        long acquiredBefore = meterRegistry.get("hikaricp.connections.acquire").timer().count();
+
+        LoadResult result = runLoad(CLIENTS, 100);
+
+        assertEquals(CLIENTS, result.succeeded);
+        assertEquals(POOL_SIZE, result.maxActive);
+        assertTrue(result.maxPending >= CLIENTS - POOL_SIZE - 1, "max pending: " + result.maxPending);
+        // Three waves of four, each holding its connections for 100ms
+        assertTrue(result.elapsedMillis >= 300, "elapsed: " + result.elapsedMillis);
+        assertTrue(meterRegistry.get("hikaricp.connections.acquire").timer().count() - acquiredBefore >= CLIENTS);
+        assertEquals(0, pool().getThreadsAwaitingConnection());
+    }
+
+    @Test
+    void readersTimeOutWhenConnectionsAreHeldLongerThanTheTimeout() throws Exception {
+        double timeoutsBefore = meterRegistry.get("hikaricp.connections.timeout").counter().count();
+
+        LoadResult result = runLoad(2 * POOL_SIZE, 1000);
+
+        assertEquals(POOL_SIZE, result.succeeded);
+        assertEquals(POOL_SIZE, result.timedOut);
+        assertEquals(POOL_SIZE, meterRegistry.get("hikaricp.connections.timeout").counter().count() - timeoutsBefore);
+        // The pool recovers once the load is gone
+        assertEquals(0, pool().getActiveConnections());
+        assertEquals(POOL_SIZE, pool().getIdleConnections());
+    }
+
+    // Every client reads the keyword list in a transaction and keeps its connection for holdMillis
+    private LoadResult runLoad(int clients, long holdMillis) throws Exception {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger timedOut = new AtomicInteger();
+        AtomicBoolean running = new AtomicBoolean(true);
+        int[] max = new int[2];
+
+        ExecutorService executor = Executors.newFixedThreadPool(clients + 1);
+        try {
+            HikariPoolMXBean pool = pool();
+            Future<?> sampler = executor.submit(() -> {
+                while (running.get()) {
+                    max[0] = Math.max(max[0], pool.getActiveConnections());
+                    max[1] = Math.max(max[1], pool.getThreadsAwaitingConnection());
+                    sleep(1);
+                }
+            });
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < clients; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        transaction.executeWithoutResult(status -> {
+                            keywordService.getAllKeywords();
+                            sleep(holdMillis);
+                        });
+                        succeeded.incrementAndGet();
+                    } catch (RuntimeException e) {
+                        if (!causedByConnectionTimeout(e)) {
+                            throw e;
+                        }
+                        timedOut.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            long startedAt = System.nanoTime();
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+            running.set(false);
+            sampler.get(5, TimeUnit.SECONDS);
+            return new LoadResult(succeeded.get(), timedOut.get(), max[0], max[1], elapsedMillis);
+        } finally {
+            running.set(false);
+            executor.shutdownNow();
+        }
+    }
+
+    // Live counts; the exported gauges read pool statistics that Hikari refreshes at most once a second
+    private HikariPoolMXBean pool() {
+        try {
+            return dataSource.unwrap(HikariDataSource.class).getHikariPoolMXBean();
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private double gauge(String name) {
+        return meterRegistry.get(name).tag("pool", "KeywordDBPool").gauge().value();
+    }
+
+    private static boolean causedByConnectionTimeout(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLTransientConnectionException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record LoadResult(int succeeded, int timedOut, int maxActive, int maxPending, long elapsedMillis) {
+    }
+}
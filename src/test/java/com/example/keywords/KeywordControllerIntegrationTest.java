@@ -1,11 +1,18 @@
 package com.example.keywords;
 
 import com.example.keywords.KeywordApplication;
+import com.example.keywords.matcher.KeywordExport;
+import com.example.keywords.matcher.KeywordSnapshot;
 import com.example.keywords.model.Keyword;
 import com.example.keywords.repository.KeywordRepository;
+import com.example.keywords.services.KeywordService;
+import com.example.keywords.services.KeywordSnapshotService;
+import com.example.keywords.services.KeywordStatisticsService;
+import com.example.keywords.services.MaskWarmupRunner;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -14,14 +21,25 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.TestPropertySource;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
 
+import static org.awaitility.Awaitility.await;
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -46,6 +64,18 @@ class KeywordControllerIntegrationTest {
     @Autowired
     private KeywordRepository keywordRepository;
 
+    @Autowired
+    private KeywordSnapshotService keywordSnapshotService;
+
+    @Autowired
+    private KeywordService keywordService;
+
+    @Autowired
+    private KeywordStatisticsService keywordStatisticsService;
+
+    @Autowired
+    private MaskWarmupRunner maskWarmupRunner;
+
     private final List<String> testKeywords = Arrays.asList(
             "SELECT", "FROM", "WHERE", "INSERT", "UPDATE", "DELETE",
             "CREATE", "TABLE", "DROP", "ALTER", "GRANT", "REVOKE",
@@ -68,6 +98,30 @@ class KeywordControllerIntegrationTest {
 
         // Verify data was inserted
         assertEquals(testKeywords.size(), keywordRepository.count());
+
+        // Seeded through the repository, so no change event reaches the snapshot
+        keywordSnapshotService.refresh();
+    }
+
+    // Only matters for tests that commit; in the others the deletes are rolled back with the rest
+    @AfterEach
+    void tearDown() {
+        keywordRepository.deleteAll();
+    }
+
+    // Committed writes through the API reach the snapshot on its refresh thread
+    private void awaitSnapshotRefresh() {
+        await().atMost(Duration.ofSeconds(10)).until(() -> keywordSnapshotService.findSnapshot()
+                .map(KeywordSnapshot::getVersion)
+                .orElse(0L) == keywordService.getKeywordSetVersion());
+    }
+
+    @Test
+    void testReadinessReportsKeywordSnapshot() throws Exception {
+        mockMvc.perform(get("/actuator/health/readiness"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("UP"))
+                .andExpect(jsonPath("$.components.keywordSnapshot.details.size").value(testKeywords.size()));
     }
 
     @Test
@@ -195,6 +249,7 @@ class KeywordControllerIntegrationTest {
     }
 
     @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     void testFullCRUDWithMaskingIntegration() throws Exception {
         // Step 1: Create a new keyword via API
         String newKeywordJson = "{\"word\": \"EXECUTE\"}";
@@ -205,6 +260,7 @@ class KeywordControllerIntegrationTest {
                 .andExpect(status().isCreated())
                 .andExpect(jsonPath("$.word").value("EXECUTE"))
                 .andExpect(jsonPath("$.id").exists());
+        awaitSnapshotRefresh();
 
         // Step 2: Test that the new keyword gets masked
         String input = "EXECUTE stored_procedure";
@@ -217,6 +273,25 @@ class KeywordControllerIntegrationTest {
                 .andExpect(content().string("******* stored_procedure"));
     }
 
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void testKeywordWithSharpSIsStoredAndMatchedAsWritten() throws Exception {
+        mockMvc.perform(post("/api/keywords")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"word\": \"straße\"}"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.word").value("STRAßE"));
+        awaitSnapshotRefresh();
+
+        mockMvc.perform(get("/api/keywords/by-word/{word}", "Straße"))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/api/keywords/mask")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"input\": \"Hauptstraße 1 or Straße 2\"}"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("Hauptstraße 1 or ****** 2"));
+    }
+
     @Test
     void testGetAllKeywords() throws Exception {
         mockMvc.perform(get("/api/keywords"))
@@ -226,6 +301,7 @@ class KeywordControllerIntegrationTest {
     }
 
     @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     void testCreateGetUpdateDeleteCycle() throws Exception {
         // Create
         String createJson = "{\"word\": \"NEWKEYWORD\"}";
@@ -256,6 +332,7 @@ class KeywordControllerIntegrationTest {
                         .content(updateJson))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.word").value("UPDATEDKEYWORD"));
+        awaitSnapshotRefresh();
 
         // Verify update by getting again
         mockMvc.perform(get("/api/keywords/{id}", createdId))
@@ -314,6 +391,278 @@ class KeywordControllerIntegrationTest {
                 .andExpect(content().string(expectedMasked));
     }
 
+    @Test
+    void testMaskPlainTextUtf8() throws Exception {
+        String input = "SELECT prénom FROM users — où id = 1";
+
+        mockMvc.perform(post("/api/keywords/mask")
+                        .contentType("text/plain;charset=UTF-8")
+                        .content(input.getBytes(StandardCharsets.UTF_8)))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/plain;charset=UTF-8"))
+                .andExpect(content().bytes("****** prénom **** users — où id = 1".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void testMaskPlainTextRejectsOtherCharsets() throws Exception {
+        mockMvc.perform(post("/api/keywords/mask")
+                        .contentType("text/plain;charset=ISO-8859-1")
+                        .content("SELECT 1".getBytes(StandardCharsets.ISO_8859_1)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testMaskPlainTextRejectsBlankBodiesLikeJson() throws Exception {
+        for (String blank : List.of("", " \n\t")) {
+            mockMvc.perform(post("/api/keywords/mask")
+                            .contentType("text/plain;charset=UTF-8")
+                            .content(blank.getBytes(StandardCharsets.UTF_8)))
+                    .andExpect(status().isBadRequest());
+            mockMvc.perform(post("/api/keywords/mask")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(Map.of("input", blank))))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
+    @Test
+    void testMaskPlainTextRejectsBodiesBeyondTheByteLimitWith413() throws Exception {
+        byte[] tooLong = "a".repeat(3 * 10000 + 1).getBytes(StandardCharsets.UTF_8);
+
+        mockMvc.perform(post("/api/keywords/mask")
+                        .contentType("text/plain;charset=UTF-8")
+                        .content(tooLong))
+                .andExpect(status().isPayloadTooLarge())
+                .andExpect(jsonPath("$.errorCode").value("INPUT_003"));
+        // Without Content-Length the body is read only one byte past the limit
+        mockMvc.perform(post("/api/keywords/mask")
+                        .contentType("text/plain;charset=UTF-8")
+                        .content(tooLong)
+                        .with(request -> {
+                            request.removeHeader("Content-Length");
+                            return request;
+                        }))
+                .andExpect(status().isPayloadTooLarge());
+        // Within the byte limit but over the char limit stays a validation error
+        mockMvc.perform(post("/api/keywords/mask")
+                        .contentType("text/plain;charset=UTF-8")
+                        .content("a".repeat(10001).getBytes(StandardCharsets.UTF_8)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testDetectReportsOffsetsIdsAndCounts() throws Exception {
+        Long selectId = keywordRepository.findByWord("SELECT").orElseThrow().getId();
+        Long fromId = keywordRepository.findByWord("FROM").orElseThrow().getId();
+
+        mockMvc.perform(post("/api/keywords/detect")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"input\": \"select a from t, (SELECT b FROM u)\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.found").value(true))
+                .andExpect(jsonPath("$.matchCount").value(4))
+                .andExpect(jsonPath("$.matches[0].start").value(0))
+                .andExpect(jsonPath("$.matches[0].end").value(6))
+                .andExpect(jsonPath("$.matches[0].keywordId").value(selectId))
+                .andExpect(jsonPath("$.matches[3].start").value(27))
+                .andExpect(jsonPath("$.matches[3].keywordId").value(fromId))
+                .andExpect(jsonPath("$.keywordCounts." + selectId).value(2))
+                .andExpect(jsonPath("$.keywordCounts." + fromId).value(2));
+    }
+
+    @Test
+    void testDetectAnyReportsOnlyWhetherAKeywordOccurs() throws Exception {
+        mockMvc.perform(post("/api/keywords/detect/any")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"input\": \"please drop it\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.found").value(true))
+                .andExpect(jsonPath("$.matches").doesNotExist());
+
+        mockMvc.perform(post("/api/keywords/detect/any")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"input\": \"selection of tables\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.found").value(false));
+    }
+
+    @Test
+    void testGetKeywordByWordNormalizesTheWord() throws Exception {
+        Long selectId = keywordRepository.findByWord("SELECT").orElseThrow().getId();
+
+        mockMvc.perform(get("/api/keywords/by-word/{word}", "select"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(selectId))
+                .andExpect(jsonPath("$.word").value("SELECT"));
+
+        mockMvc.perform(get("/api/keywords/by-word/{word}", "SELECT FROM"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testConditionalGetAndUpdateWithETags() throws Exception {
+        Long selectId = keywordRepository.findByWord("SELECT").orElseThrow().getId();
+
+        mockMvc.perform(get("/api/keywords/{id}", selectId))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"0\""))
+                .andExpect(jsonPath("$.version").doesNotExist());
+        mockMvc.perform(get("/api/keywords/{id}", selectId).header("If-None-Match", "\"0\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        mockMvc.perform(put("/api/keywords/{id}", selectId)
+                        .header("If-Match", "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"word\": \"SELECTED\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1\""))
+                .andExpect(jsonPath("$.word").value("SELECTED"));
+
+        mockMvc.perform(put("/api/keywords/{id}", selectId)
+                        .header("If-Match", "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"word\": \"SELECT\"}"))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.errorCode").value("KEYWORD_004"));
+        mockMvc.perform(get("/api/keywords/{id}", selectId).header("If-None-Match", "\"0\""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.word").value("SELECTED"));
+
+        mockMvc.perform(put("/api/keywords/{id}", selectId)
+                        .header("If-Match", "\"7\", \"1\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"word\": \"SELECT\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"2\""));
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void testKeywordListAnswersNotModifiedUntilTheSetChanges() throws Exception {
+        String eTag = mockMvc.perform(get("/api/keywords"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Vary", containsString("Accept-Encoding")))
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andReturn().getResponse().getHeader("ETag");
+        assertTrue(eTag.matches("\"[0-9a-f]+\""), eTag);
+
+        mockMvc.perform(get("/api/keywords").header("If-None-Match", eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        mockMvc.perform(post("/api/keywords")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"word\": \"TRUNCATE\"}"))
+                .andExpect(status().isCreated());
+        // Read-your-writes: the list follows the database, not the snapshot rebuilding in the background
+        mockMvc.perform(get("/api/keywords").header("If-None-Match", eTag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", not(eTag)))
+                .andExpect(jsonPath("$", hasSize(testKeywords.size() + 1)));
+    }
+
+    // Committed, so that no later test's rolled back writes reach the same keyword-set version
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void testLargeKeywordListIsSentGzippedToClientsThatAcceptIt() throws Exception {
+        for (int i = 0; i < 200; i++) {
+            Keyword entity = new Keyword();
+            entity.setWord("GENERATED_KEYWORD_" + i);
+            keywordRepository.save(entity);
+        }
+
+        MockHttpServletResponse identity = mockMvc.perform(get("/api/keywords"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andReturn().getResponse();
+        MockHttpServletResponse gzipped = mockMvc.perform(get("/api/keywords").header("Accept-Encoding", "br, gzip;q=0.8"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andReturn().getResponse();
+        mockMvc.perform(get("/api/keywords").header("Accept-Encoding", "gzip;q=0"))
+                .andExpect(header().doesNotExist("Content-Encoding"));
+
+        assertNotEquals(identity.getHeader("ETag"), gzipped.getHeader("ETag"));
+        assertTrue(gzipped.getContentAsByteArray().length < identity.getContentAsByteArray().length / 3);
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped.getContentAsByteArray()))) {
+            assertArrayEquals(identity.getContentAsByteArray(), in.readAllBytes());
+        }
+        mockMvc.perform(get("/api/keywords").header("Accept-Encoding", "gzip")
+                        .header("If-None-Match", gzipped.getHeader("ETag")))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void testExportRoundTripsTheKeywordSetWithItsMatcher() throws Exception {
+        MockHttpServletResponse response = mockMvc.perform(get("/api/keywords/export").param("matcher", "true"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(KeywordExport.MEDIA_TYPE))
+                .andReturn().getResponse();
+
+        KeywordExport export = KeywordExport.read(response.getContentAsByteArray());
+        assertEquals(testKeywords.stream().sorted().toList(), export.getKeywords());
+        List<String> masked = new ArrayList<>();
+        export.getMatcherImage().getMatcher().scan("select x from y",
+                (start, end, keywordIndex) -> masked.add(export.getKeywords().get(keywordIndex)));
+        assertEquals(List.of("SELECT", "FROM"), masked);
+
+        mockMvc.perform(get("/api/keywords/export").param("matcher", "true")
+                        .header("If-None-Match", response.getHeader("ETag")))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/keywords/export").header("If-None-Match", response.getHeader("ETag")))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void testStatisticsCountMatchesAcrossFlushes() throws Exception {
+        keywordStatisticsService.flush();
+        for (String input : List.of("select a from b", "SELECT 1", "drop it")) {
+            mockMvc.perform(post("/api/keywords/mask")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(String.format("{\"input\": \"%s\"}", input)))
+                    .andExpect(status().isOk());
+        }
+        keywordStatisticsService.flush();
+        mockMvc.perform(post("/api/keywords/mask")
+                        .contentType("text/plain;charset=UTF-8")
+                        .content("select".getBytes(StandardCharsets.UTF_8)))
+                .andExpect(status().isOk());
+        keywordStatisticsService.flush();
+
+        mockMvc.perform(get("/api/keywords/statistics").param("limit", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[0].word").value("SELECT"))
+                .andExpect(jsonPath("$[0].hitCount").value(3))
+                .andExpect(jsonPath("$[1].word").value("FROM"))
+                .andExpect(jsonPath("$[1].hitCount").value(1))
+                .andExpect(jsonPath("$[2].word").value("DROP"));
+
+        mockMvc.perform(get("/api/keywords/statistics").param("least", "true").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].word").value("WHERE"))
+                .andExpect(jsonPath("$[0].hitCount").value(0))
+                .andExpect(jsonPath("$[0].lastHitAt").doesNotExist());
+
+        mockMvc.perform(get("/api/keywords/statistics").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testStatisticsStayZeroAfterWarmup() throws Exception {
+        keywordStatisticsService.flush();
+
+        maskWarmupRunner.run();
+        keywordStatisticsService.flush();
+
+        assertTrue(maskWarmupRunner.getCompletedIterations() > 0);
+        mockMvc.perform(get("/api/keywords/statistics").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].hitCount").value(0))
+                .andExpect(jsonPath("$[0].lastHitAt").doesNotExist());
+    }
+
     @Test
     void testPerformanceWithManyKeywords() throws Exception {
         // Add many more keywords to test performance
@@ -1,14 +1,29 @@
 package com.example.keywords;
 
 import com.example.keywords.dto.KeywordDTO;
+import com.example.keywords.exception.DuplicateResourceException;
+import com.example.keywords.model.Keyword;
 import com.example.keywords.repository.KeywordRepository;
 import com.example.keywords.services.KeywordService;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 @SpringBootTest
@@ -22,6 +37,9 @@ class KeywordServiceIntegrationTest {
     @Autowired
     private KeywordRepository keywordRepository;
 
+    @PersistenceContext
+    private EntityManager entityManager;
+
     @Test
     void testFullCRUDCycle() {
         // Create
@@ -46,4 +64,100 @@ class KeywordServiceIntegrationTest {
         keywordService.deleteKeyword(created.getId());
         assertFalse(keywordRepository.existsById(created.getId()));
     }
+
+    @Test
+    void testKeywordSetVersionGrowsWithEveryWrite() {
+        List<Long> versions = new ArrayList<>();
+        versions.add(keywordService.getKeywordSetVersion());
+
+        KeywordDTO dto = new KeywordDTO();
+        dto.setWord("VERSIONED");
+        KeywordDTO created = keywordService.createKeyword(dto);
+        entityManager.flush();
+        versions.add(keywordService.getKeywordSetVersion());
+
+        dto.setWord("RENAMED");
+        keywordService.updateKeyword(created.getId(), dto);
+        entityManager.flush();
+        versions.add(keywordService.getKeywordSetVersion());
+
+        // Same count, max id and second as before the delete, which a fingerprint of those would miss
+        keywordService.deleteKeyword(created.getId());
+        keywordRepository.saveAndFlush(new Keyword("REPLACEMENT"));
+        versions.add(keywordService.getKeywordSetVersion());
+
+        for (int i = 1; i < versions.size(); i++) {
+            assertTrue(versions.get(i) > versions.get(i - 1), "versions " + versions);
+        }
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void testKeywordByIdIsCachedInTheSecondLevelCache() {
+        KeywordDTO dto = new KeywordDTO();
+        dto.setWord("CACHED");
+        KeywordDTO created = keywordService.createKeyword(dto);
+        Cache cache = entityManager.getEntityManagerFactory().getCache();
+        try {
+            cache.evictAll();
+
+            keywordService.getKeywordById(created.getId());
+
+            assertTrue(cache.contains(Keyword.class, created.getId()));
+        } finally {
+            keywordService.deleteKeyword(created.getId());
+        }
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void testConcurrentCreatesOfTheSameWordLetExactlyOneWin() throws Exception {
+        int threads = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            for (String word : List.of("RACE", "RACE_AGAIN", "RACE_ONCE_MORE")) {
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<Long>> results = new ArrayList<>();
+                for (int i = 0; i < threads; i++) {
+                    results.add(executor.submit(() -> {
+                        start.await();
+                        KeywordDTO dto = new KeywordDTO();
+                        dto.setWord(word);
+                        try {
+                            return keywordService.createKeyword(dto).getId();
+                        } catch (DuplicateResourceException e) {
+                            return null;
+                        }
+                    }));
+                }
+                start.countDown();
+
+                List<Long> created = new ArrayList<>();
+                for (Future<Long> result : results) {
+                    Long id = result.get(30, TimeUnit.SECONDS);
+                    if (id != null) {
+                        created.add(id);
+                    }
+                }
+                assertEquals(1, created.size(), word);
+                assertEquals(word, keywordService.getKeywordById(created.get(0)).getWord());
+                keywordService.deleteKeyword(created.get(0));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testListingDoesNotAttachEntities() {
+        KeywordDTO dto = new KeywordDTO();
+        dto.setWord("READONLY");
+        KeywordDTO created = keywordService.createKeyword(dto);
+        entityManager.flush();
+        entityManager.clear();
+
+        assertTrue(keywordService.getAllKeywords().stream().anyMatch(k -> k.getId().equals(created.getId())));
+
+        assertEquals(0, entityManager.unwrap(Session.class).getStatistics().getEntityCount());
+    }
 }
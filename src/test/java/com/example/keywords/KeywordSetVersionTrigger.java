@@ -0,0 +1,24 @@
+package com.example.keywords;
+
+import com.example.keywords.model.KeywordSetVersion;
+import org.h2.api.Trigger;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * H2 stand-in for the tr_keywords_set_version trigger of the V4 migration, created by import.sql
+ * because the tests build their schema with Hibernate instead of Flyway.
+ */
+public class KeywordSetVersionTrigger implements Trigger {
+
+    @Override
+    public void fire(Connection connection, Object[] oldRow, Object[] newRow) throws SQLException {
+        try (PreparedStatement bump = connection.prepareStatement(
+                "UPDATE keyword_set_version SET version = version + 1 WHERE id = ?")) {
+            bump.setInt(1, KeywordSetVersion.ID);
+            bump.executeUpdate();
+        }
+    }
+}
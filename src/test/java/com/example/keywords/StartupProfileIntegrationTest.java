@@ -0,0 +1,71 @@
+package com.example.keywords;
+
+import com.example.keywords.health.KeywordSnapshotHealthIndicator;
+import com.example.keywords.health.KeywordSnapshotMetrics;
+import com.example.keywords.services.KeywordSnapshotService;
+import com.example.keywords.services.MaskWarmupRunner;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.BeanFactoryAware;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// The startup profile last, so its dialect placeholder is what selects H2
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:startuptest;DB_CLOSE_DELAY=-1;MODE=MSSQLServer",
+        "HIBERNATE_DIALECT=org.hibernate.dialect.H2Dialect"
+})
+@ActiveProfiles({"test", "startup"})
+class StartupProfileIntegrationTest {
+
+    private static final List<Class<?>> READINESS_BEANS = List.of(KeywordSnapshotService.class,
+            KeywordSnapshotHealthIndicator.class, KeywordSnapshotMetrics.class, MaskWarmupRunner.class);
+
+    @Autowired
+    private ConfigurableApplicationContext context;
+
+    @Autowired
+    private SingletonsAtRefresh singletonsAtRefresh;
+
+    @Test
+    void readinessBeansAreCreatedDuringRefreshAndTheRestLazily() {
+        DefaultListableBeanFactory beanFactory = (DefaultListableBeanFactory) context.getBeanFactory();
+        for (Class<?> type : READINESS_BEANS) {
+            String name = beanFactory.getBeanNamesForType(type)[0];
+            assertTrue(singletonsAtRefresh.names.contains(name), name + " is created during refresh");
+        }
+        assertFalse(singletonsAtRefresh.names.contains("keywordController"), "keywordController is created on first use");
+        assertTrue(context.getBean(KeywordSnapshotService.class).findSnapshot().isPresent());
+    }
+
+    // Lazy initialization never applies to SmartInitializingSingleton, which runs once the eager singletons exist
+    @TestConfiguration
+    static class SingletonsAtRefresh implements SmartInitializingSingleton, BeanFactoryAware {
+
+        private final Set<String> names = new HashSet<>();
+        private DefaultListableBeanFactory beanFactory;
+
+        @Override
+        public void setBeanFactory(BeanFactory beanFactory) {
+            this.beanFactory = (DefaultListableBeanFactory) beanFactory;
+        }
+
+        @Override
+        public void afterSingletonsInstantiated() {
+            names.addAll(Arrays.asList(beanFactory.getSingletonNames()));
+        }
+    }
+}
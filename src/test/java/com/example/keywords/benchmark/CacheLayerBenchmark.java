@@ -0,0 +1,163 @@
+package com.example.keywords.benchmark;
+
+import com.example.keywords.KeywordApplication;
+import com.example.keywords.model.Keyword;
+import com.example.keywords.repository.KeywordRepository;
+import com.example.keywords.services.KeywordService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The keyword read and write mix against H2, with the entity cache alone ({@code current}) and with
+ * the query cache the repository used to ask for on every query ({@code queryCache}). The queries
+ * are issued here, with or without the cacheable hint, so that both layouts run the same SQL.
+ * Hit rates and the entries each region holds are printed at the end of each run.
+ *
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.example.keywords.benchmark.CacheLayerBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CacheLayerBenchmark {
+
+    private static final int KEYWORD_COUNT = 2_000;
+
+    @Param({"current", "queryCache"})
+    public String layout;
+
+    private ConfigurableApplicationContext context;
+    private KeywordService keywordService;
+    private EntityManager entityManager;
+    private TransactionTemplate readTransaction;
+    private TransactionTemplate writeTransaction;
+    private Statistics statistics;
+    private List<Long> ids;
+    private List<String> words;
+    private boolean cacheQueries;
+    private final Random random = new Random(3);
+    private boolean[] suffixed;
+    private long writes;
+
+    @Setup
+    public void setUp() {
+        cacheQueries = layout.equals("queryCache");
+        context = SpringApplication.run(KeywordApplication.class, "--spring.profiles.active=test",
+                "--spring.main.web-application-type=none", "--logging.level.root=WARN",
+                "--keywords.statistics.enabled=false",
+                "--spring.jpa.properties.hibernate.generate_statistics=true",
+                "--spring.jpa.properties.hibernate.cache.use_query_cache=" + cacheQueries,
+                // The query cache regions were never configured and got provider defaults
+                "--spring.jpa.properties.hibernate.javax.cache.missing_cache_strategy=" + (cacheQueries ? "create" : "fail"));
+        keywordService = context.getBean(KeywordService.class);
+        EntityManagerFactory entityManagerFactory = context.getBean(EntityManagerFactory.class);
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory);
+        readTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readTransaction.setReadOnly(true);
+        writeTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        words = MatcherFootprintBenchmark.generateKeywords(KEYWORD_COUNT, 7);
+        ids = new ArrayList<>();
+        for (Keyword keyword : context.getBean(KeywordRepository.class)
+                .saveAll(words.stream().map(Keyword::new).toList())) {
+            ids.add(keyword.getId());
+        }
+        suffixed = new boolean[ids.size()];
+        statistics.clear();
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.out.printf("%n[%s] entity cache hits %d misses %d, query cache hits %d misses %d, writes %d%n",
+                layout, statistics.getSecondLevelCacheHitCount(), statistics.getSecondLevelCacheMissCount(),
+                statistics.getQueryCacheHitCount(), statistics.getQueryCacheMissCount(), writes);
+        CacheManager cacheManager = context.getBean(CacheManager.class);
+        for (String region : cacheManager.getCacheNames()) {
+            int entries = 0;
+            for (Cache.Entry<Object, Object> ignored : cacheManager.getCache(region)) {
+                entries++;
+            }
+            System.out.printf("[%s] region %s holds %d entries%n", layout, region, entries);
+        }
+        context.close();
+    }
+
+    // Mostly reads by id, some duplicate checks and word lists, and one write in fifty
+    @Benchmark
+    public Object mixed() {
+        int roll = random.nextInt(100);
+        if (roll < 80) {
+            return keywordService.getKeywordById(ids.get(random.nextInt(ids.size())));
+        }
+        if (roll < 94) {
+            // Half of the checked words exist, as when clients create keywords in bulk
+            String word = random.nextBoolean() ? words.get(random.nextInt(words.size())) : "MISSING" + random.nextInt();
+            return readTransaction.execute(status -> entityManager
+                    .createQuery("SELECT COUNT(k) > 0 FROM Keyword k WHERE k.word = :word", Boolean.class)
+                    .setParameter("word", word)
+                    .setHint("org.hibernate.cacheable", cacheQueries)
+                    .getSingleResult());
+        }
+        if (roll < 98) {
+            return readTransaction.execute(status -> entityManager
+                    .createQuery("SELECT k.word FROM Keyword k ORDER BY k.id", String.class)
+                    .setHint("org.hibernate.cacheable", cacheQueries)
+                    .getResultList());
+        }
+        return write();
+    }
+
+    // Written straight through JPA, since the service also rebuilds the keyword snapshot on every change
+    @Benchmark
+    public Keyword write() {
+        int index = random.nextInt(ids.size());
+        writes++;
+        // Toggles a suffix that no generated keyword ends with, so words stay unique
+        suffixed[index] = !suffixed[index];
+        String word = words.get(index) + (suffixed[index] ? "_W" : "");
+        return writeTransaction.execute(status -> {
+            Keyword keyword = entityManager.find(Keyword.class, ids.get(index));
+            keyword.setWord(word);
+            return keyword;
+        });
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(CacheLayerBenchmark.class.getSimpleName()).build()).run();
+    }
+
+}
@@ -0,0 +1,104 @@
+package com.example.keywords.benchmark;
+
+import com.example.keywords.matcher.CandidateFilter;
+import com.example.keywords.matcher.KeywordMatcher;
+import com.example.keywords.matcher.KeywordMatchers;
+import com.example.keywords.matcher.MatcherType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Raw UTF-8 scanning of keyword-free text with no pre-filter, the scalar pair table and the
+ * Vector API filter. English prose has many word starts sharing a first pair with SQL keywords;
+ * log lines have few.
+ *
+ * <pre>
+ * mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test \
+ *     -Dexec.args="--add-modules jdk.incubator.vector -cp %classpath com.example.keywords.benchmark.CandidateFilterBenchmark"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class CandidateFilterBenchmark {
+
+    private static final List<String> SQL_KEYWORDS = List.of(
+            "SELECT", "FROM", "WHERE", "INSERT", "UPDATE", "DELETE", "CREATE", "TABLE", "DROP", "ALTER",
+            "GRANT", "REVOKE", "BEGIN", "COMMIT", "ROLLBACK", "TRANSACTION", "JOIN", "UNION", "EXEC",
+            "EXECUTE", "TRUNCATE", "MERGE", "DECLARE", "CURSOR", "FETCH", "PROCEDURE", "TRIGGER", "VIEW",
+            "INDEX", "SCHEMA", "DATABASE", "XP_CMDSHELL", "SP_EXECUTESQL", "WAITFOR", "DELAY", "SHUTDOWN");
+    private static final String[] PROSE = {
+            "the", "customer", "asked", "about", "their", "order", "which", "was", "shipped", "yesterday",
+            "and", "arrived", "late", "because", "of", "weather", "in", "north", "region", "we", "will",
+            "refund", "shipping", "costs", "please", "confirm", "address", "details", "thanks", "team"
+    };
+    private static final String[] LOG = {
+            "2024-01-15T10:22:31.512Z", "INFO", "[http-nio-8080-exec-7]", "o.e.orders.OrderController", "-",
+            "user_id=48213", "status=200", "latency_ms=12", "path=/api/orders/991", "trace=9f3a1c0e", "bytes=5121",
+            "method=GET", "client=10.4.2.17", "cache=hit", "region=eu-west-1", "attempt=1"
+    };
+
+    @Param({"prose", "log"})
+    public String corpus;
+
+    @Param({"none", "scalar", "vector"})
+    public String filter;
+
+    @Param({"4096"})
+    public int inputLength;
+
+    private KeywordMatcher matcher;
+    private CandidateFilter candidateFilter;
+    private byte[] input;
+
+    @Setup
+    public void setUp() {
+        matcher = KeywordMatchers.compile(MatcherType.COMPACT, SQL_KEYWORDS);
+        candidateFilter = switch (filter) {
+            case "scalar" -> KeywordMatchers.candidateFilter(matcher, false);
+            case "vector" -> KeywordMatchers.candidateFilter(matcher, true);
+            default -> null;
+        };
+        String[] tokens = corpus.equals("log") ? LOG : PROSE;
+        Random random = new Random(3);
+        StringBuilder text = new StringBuilder(inputLength + 32);
+        while (text.length() < inputLength) {
+            text.append(tokens[random.nextInt(tokens.length)]).append(random.nextInt(12) == 0 ? ".\n" : " ");
+        }
+        text.setLength(inputLength);
+        input = text.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public int scan() {
+        int[] matches = new int[1];
+        matcher.scanUtf8(input, input.length, candidateFilter, (start, end, keywordIndex) -> {
+            matches[0]++;
+            return true;
+        });
+        return matches[0];
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(CandidateFilterBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.keywords.benchmark;
+
+import com.example.keywords.KeywordApplication;
+import com.example.keywords.dto.KeywordDTO;
+import com.example.keywords.model.Keyword;
+import com.example.keywords.repository.KeywordRepository;
+import com.example.keywords.services.KeywordService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Listing all keywords against H2: the projection path of {@link KeywordService} against loading
+ * managed {@link Keyword} entities and copying them into DTOs, as the service used to. Run with
+ * {@code -prof gc} to see the allocation per read as well.
+ *
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.example.keywords.benchmark.KeywordReadPathBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KeywordReadPathBenchmark {
+
+    @Param({"100", "2000"})
+    public int keywordCount;
+
+    private ConfigurableApplicationContext context;
+    private KeywordService keywordService;
+    private KeywordRepository keywordRepository;
+    private TransactionTemplate readTransaction;
+
+    @Setup
+    public void setUp() {
+        context = SpringApplication.run(KeywordApplication.class, "--spring.profiles.active=test",
+                "--spring.main.web-application-type=none", "--logging.level.root=WARN");
+        keywordService = context.getBean(KeywordService.class);
+        keywordRepository = context.getBean(KeywordRepository.class);
+        readTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readTransaction.setReadOnly(true);
+
+        List<Keyword> keywords = new ArrayList<>();
+        for (String word : MatcherFootprintBenchmark.generateKeywords(keywordCount, 7)) {
+            keywords.add(new Keyword(word));
+        }
+        keywordRepository.saveAll(keywords);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<KeywordDTO> allEntities() {
+        return readTransaction.execute(status -> keywordRepository.findAll().stream()
+                .map(KeywordReadPathBenchmark::toDTO)
+                .toList());
+    }
+
+    @Benchmark
+    public List<KeywordDTO> allProjections() {
+        return keywordService.getAllKeywords();
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(KeywordReadPathBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    private static KeywordDTO toDTO(Keyword keyword) {
+        return new KeywordDTO(keyword.getId(), keyword.getWord(), keyword.getVersion());
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.keywords.benchmark;
+
+import com.example.keywords.KeywordApplication;
+import com.example.keywords.model.Keyword;
+import com.example.keywords.repository.KeywordRepository;
+import com.example.keywords.services.KeywordResponseCache;
+import com.example.keywords.services.KeywordService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Body of {@code GET /api/keywords} and {@code GET /api/keywords/{id}} against H2: serialized by
+ * Jackson on every call, as the controller used to, against the bytes kept by
+ * {@link KeywordResponseCache}. Both sides include the lookups a request makes, so the difference is
+ * the serialization saved. Run with {@code -prof gc} to see the allocation per read as well.
+ *
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.example.keywords.benchmark.KeywordResponseBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KeywordResponseBenchmark {
+
+    @Param({"100", "2000"})
+    public int keywordCount;
+
+    private ConfigurableApplicationContext context;
+    private KeywordService keywordService;
+    private KeywordResponseCache keywordResponseCache;
+    private ObjectMapper objectMapper;
+    private Long keywordId;
+
+    @Setup
+    public void setUp() {
+        context = SpringApplication.run(KeywordApplication.class, "--spring.profiles.active=test",
+                "--spring.main.web-application-type=none", "--logging.level.root=WARN");
+        keywordService = context.getBean(KeywordService.class);
+        keywordResponseCache = context.getBean(KeywordResponseCache.class);
+        objectMapper = context.getBean(ObjectMapper.class);
+
+        List<Keyword> keywords = new ArrayList<>();
+        for (String word : MatcherFootprintBenchmark.generateKeywords(keywordCount, 7)) {
+            keywords.add(new Keyword(word));
+        }
+        keywordId = context.getBean(KeywordRepository.class).saveAll(keywords).get(keywordCount / 2).getId();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public byte[] listSerialized() throws Exception {
+        return objectMapper.writeValueAsBytes(keywordService.getAllKeywords());
+    }
+
+    @Benchmark
+    public byte[] listPrecomputed() {
+        return keywordResponseCache.getKeywordList().bytes();
+    }
+
+    @Benchmark
+    public byte[] byIdSerialized() throws Exception {
+        return objectMapper.writeValueAsBytes(keywordService.getKeywordById(keywordId));
+    }
+
+    @Benchmark
+    public byte[] byIdPrecomputed() {
+        return keywordResponseCache.getKeyword(keywordId).bytes();
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(KeywordResponseBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.keywords.benchmark;
+
+import com.example.keywords.config.KeywordProperties;
+import com.example.keywords.dto.MaskRequestDTO;
+import com.example.keywords.services.KeywordService;
+import com.example.keywords.services.KeywordSnapshotServiceImpl;
+import com.example.keywords.services.StringMaskService;
+import com.example.keywords.services.StringMaskServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the JSON mask path (parse {@link MaskRequestDTO}, mask the String, encode the reply)
+ * against the raw {@code text/plain} path that masks the UTF-8 request bytes in place. HTTP handling
+ * is the same for both and left out.
+ *
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.example.keywords.benchmark.MaskPathBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MaskPathBenchmark {
+
+    @Param({"512", "8000"})
+    public int inputLength;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private StringMaskService maskService;
+    private byte[] jsonRequest;
+    private byte[] utf8Request;
+
+    @Setup
+    public void setUp() throws IOException {
+        List<String> keywords = MatcherFootprintBenchmark.generateKeywords(2_000, 7);
+        KeywordService keywordService = Mockito.mock(KeywordService.class);
+        Mockito.when(keywordService.getAllKeywordWords()).thenReturn(keywords);
+        KeywordSnapshotServiceImpl snapshotService = new KeywordSnapshotServiceImpl(keywordService, new KeywordProperties());
+        snapshotService.refresh();
+        maskService = new StringMaskServiceImpl(snapshotService);
+
+        String text = generateText(keywords, inputLength);
+        jsonRequest = objectMapper.writeValueAsBytes(Map.of("input", text));
+        utf8Request = text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public byte[] json() throws IOException {
+        MaskRequestDTO request = objectMapper.readValue(jsonRequest, MaskRequestDTO.class);
+        return maskService.maskSensitiveWords(request.getInput()).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public byte[] utf8() {
+        // The servlet hands over a fresh buffer per request; masking then writes into it
+        return maskService.maskSensitiveWords(utf8Request.clone());
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(MaskPathBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    private static String generateText(List<String> keywords, int length) {
+        String[] filler = {"customer", "order", "naïve", "total", "Straße", "status", "value", "42"};
+        Random random = new Random(5);
+        StringBuilder text = new StringBuilder(length + 32);
+        while (text.length() < length) {
+            text.append(random.nextInt(5) == 0
+                    ? keywords.get(random.nextInt(keywords.size()))
+                    : filler[random.nextInt(filler.length)]).append(' ');
+        }
+        text.setLength(length);
+        return text.toString();
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.keywords.benchmark;
+
+import com.example.keywords.matcher.KeywordMatcher;
+import com.example.keywords.matcher.KeywordMatchers;
+import com.example.keywords.matcher.MatcherType;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compares the retained heap of the keyword matcher representations.
+ *
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.example.keywords.benchmark.MatcherFootprintBenchmark -Dexec.args="1000000"
+ * </pre>
+ */
+public class MatcherFootprintBenchmark {
+
+    public static void main(String[] args) {
+        int keywordCount = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        List<String> keywords = generateKeywords(keywordCount, 7);
+
+        long listBytes = GraphLayout.parseInstance(keywords).totalSize();
+        System.out.printf("%,d keywords, List<String>: %,d bytes%n", keywordCount, listBytes);
+
+        for (MatcherType type : MatcherType.values()) {
+            long start = System.nanoTime();
+            KeywordMatcher matcher = KeywordMatchers.compile(type, keywords);
+            long buildMillis = (System.nanoTime() - start) / 1_000_000;
+            long bytes = GraphLayout.parseInstance(matcher).totalSize();
+            System.out.printf("%-8s states: %,d, retained: %,d bytes (%.1f bytes/state), build: %d ms%n",
+                    type, matcher.stateCount(), bytes, (double) bytes / matcher.stateCount(), buildMillis);
+        }
+    }
+
+    static List<String> generateKeywords(int count, long seed) {
+        Random random = new Random(seed);
+        List<String> keywords = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int length = 4 + random.nextInt(13);
+            StringBuilder word = new StringBuilder(length);
+            for (int j = 0; j < length; j++) {
+                word.append((char) ('A' + random.nextInt(26)));
+            }
+            keywords.add(word.toString());
+        }
+        return keywords;
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.keywords.benchmark;
+
+import com.example.keywords.matcher.KeywordMatcher;
+import com.example.keywords.matcher.KeywordMatchers;
+import com.example.keywords.matcher.MatcherType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scan of 4 KB of text against 2,000 plain keywords plus a growing number of prefix ({@code ABC*})
+ * and single-char ({@code AB?D}) patterns. The patterns are compiled into the same automaton, so the
+ * time per scan should not grow with their number.
+ *
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.example.keywords.benchmark.PatternScanBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PatternScanBenchmark {
+
+    private static final int TEXT_LENGTH = 4096;
+
+    @Param({"0", "100", "1000"})
+    public int patterns;
+
+    @Param({"TRIE", "COMPACT"})
+    public MatcherType type;
+
+    private KeywordMatcher matcher;
+    private String text;
+
+    @Setup
+    public void setUp() {
+        List<String> keywords = new ArrayList<>(MatcherFootprintBenchmark.generateKeywords(2_000, 7));
+        Random random = new Random(13);
+        List<String> words = MatcherFootprintBenchmark.generateKeywords(patterns, 17);
+        for (String word : words) {
+            keywords.add(random.nextBoolean()
+                    ? word.substring(0, 3) + "*"
+                    : word.substring(0, 2) + "?" + word.substring(3));
+        }
+        matcher = KeywordMatchers.compile(type, keywords);
+        text = generateText(keywords);
+    }
+
+    @Benchmark
+    public int scan() {
+        int[] matched = new int[1];
+        matcher.scan(text, (start, end, keywordIndex) -> {
+            matched[0]++;
+            return true;
+        });
+        return matched[0];
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(PatternScanBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    // Mostly filler with some plain keywords, so every run sees the same text whatever the pattern count
+    private static String generateText(List<String> keywords) {
+        String[] filler = {"customer", "order", "total", "status", "value", "systbldef", "42"};
+        Random random = new Random(5);
+        StringBuilder text = new StringBuilder(TEXT_LENGTH + 32);
+        while (text.length() < TEXT_LENGTH) {
+            text.append(random.nextInt(5) == 0
+                    ? keywords.get(random.nextInt(2_000)).toLowerCase()
+                    : filler[random.nextInt(filler.length)]).append(' ');
+        }
+        text.setLength(TEXT_LENGTH);
+        return text.toString();
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.keywords.benchmark;
+
+import com.example.keywords.KeywordApplication;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Measures time from JVM launch to {@link ApplicationReadyEvent} against H2, in a fresh JVM per run,
+ * for the default settings and for the {@code startup} profile.
+ *
+ * <pre>
+ * mvn -Pstartup-benchmark verify
+ * </pre>
+ */
+public class StartupTimeBenchmark {
+
+    private static final String READY_MARKER = "STARTUP_READY_MILLIS=";
+    private static final int DEFAULT_RUNS = 5;
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && args[0].equals("--child")) {
+            runChild(args[1]);
+            return;
+        }
+
+        int runs = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_RUNS;
+        for (String profiles : List.of("test", "startup,test")) {
+            List<Long> millis = new ArrayList<>();
+            for (int i = 0; i < runs; i++) {
+                millis.add(launchChild(profiles));
+            }
+            Collections.sort(millis);
+            System.out.printf("profiles=%-14s runs=%d median=%d ms min=%d ms max=%d ms%n",
+                    profiles, runs, millis.get(runs / 2), millis.get(0), millis.get(runs - 1));
+        }
+    }
+
+    private static long launchChild(String profiles) throws IOException, InterruptedException {
+        Path java = Path.of(System.getProperty("java.home"), "bin", "java");
+        Process process = new ProcessBuilder(java.toString(),
+                "-cp", System.getProperty("java.class.path"),
+                StartupTimeBenchmark.class.getName(), "--child", profiles)
+                .redirectErrorStream(true)
+                .start();
+
+        long readyMillis = -1;
+        try (BufferedReader output = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+            String line;
+            while ((line = output.readLine()) != null) {
+                if (line.startsWith(READY_MARKER)) {
+                    readyMillis = Long.parseLong(line.substring(READY_MARKER.length()));
+                }
+            }
+        }
+        if (process.waitFor() != 0 || readyMillis < 0) {
+            throw new IllegalStateException("Startup run failed for profiles " + profiles);
+        }
+        return readyMillis;
+    }
+
+    private static void runChild(String profiles) {
+        SpringApplication application = new SpringApplication(KeywordApplication.class);
+        application.addListeners(event -> {
+            if (event instanceof ApplicationReadyEvent) {
+                System.out.println(READY_MARKER + ManagementFactory.getRuntimeMXBean().getUptime());
+            }
+        });
+        try (ConfigurableApplicationContext ignored = application.run("--spring.profiles.active=" + profiles,
+                "--server.port=0", "--logging.level.root=WARN", "--keywords.snapshot.load-on-startup=true")) {
+            // Closed right after startup
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.keywords.benchmark;
+
+import com.example.keywords.config.KeywordProperties;
+import com.example.keywords.services.KeywordService;
+import com.example.keywords.services.KeywordSnapshotServiceImpl;
+import com.example.keywords.services.StringMaskService;
+import com.example.keywords.services.StringMaskServiceImpl;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Masking of short, mostly keyword-free inputs (identifiers, single tokens, short labels) with and
+ * without the token Bloom filter. About one input in twenty contains a keyword.
+ *
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.example.keywords.benchmark.TokenFilterBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenFilterBenchmark {
+
+    private static final int INPUTS = 1024;
+    private static final List<String> SQL_KEYWORDS = List.of(
+            "SELECT", "FROM", "WHERE", "INSERT", "UPDATE", "DELETE", "CREATE", "TABLE", "DROP", "ALTER",
+            "GRANT", "REVOKE", "BEGIN", "COMMIT", "ROLLBACK", "TRANSACTION", "JOIN", "UNION", "EXEC",
+            "EXECUTE", "TRUNCATE", "MERGE", "DECLARE", "CURSOR", "FETCH", "PROCEDURE", "TRIGGER", "VIEW",
+            "INDEX", "SCHEMA", "DATABASE", "XP_CMDSHELL", "SP_EXECUTESQL", "WAITFOR", "DELAY", "SHUTDOWN");
+    private static final String[] PARTS = {
+            "customer", "order", "total", "id", "name", "status", "created", "updated", "item", "price",
+            "selection", "from_date", "tables", "execution", "index_id", "user", "account", "region"
+    };
+
+    @Param({"sql", "20000"})
+    public String keywords;
+
+    @Param({"false", "true"})
+    public boolean tokenFilter;
+
+    private StringMaskService maskService;
+    private String[] inputs;
+
+    @Setup
+    public void setUp() {
+        List<String> words = keywords.equals("sql")
+                ? SQL_KEYWORDS : MatcherFootprintBenchmark.generateKeywords(Integer.parseInt(keywords), 7);
+        KeywordService keywordService = Mockito.mock(KeywordService.class);
+        Mockito.when(keywordService.getAllKeywordWords()).thenReturn(words);
+        KeywordProperties properties = new KeywordProperties();
+        properties.getTokenFilter().setEnabled(tokenFilter);
+        KeywordSnapshotServiceImpl snapshotService = new KeywordSnapshotServiceImpl(keywordService, properties);
+        snapshotService.refresh();
+        maskService = new StringMaskServiceImpl(snapshotService);
+        inputs = generateInputs(words);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(INPUTS)
+    public void mask(Blackhole blackhole) {
+        for (String input : inputs) {
+            blackhole.consume(maskService.maskSensitiveWords(input));
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(TokenFilterBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    private static String[] generateInputs(List<String> words) {
+        Random random = new Random(9);
+        List<String> inputs = new ArrayList<>(INPUTS);
+        while (inputs.size() < INPUTS) {
+            String first = PARTS[random.nextInt(PARTS.length)];
+            String second = PARTS[random.nextInt(PARTS.length)];
+            inputs.add(switch (random.nextInt(20)) {
+                case 0 -> first + " " + words.get(random.nextInt(words.size())).toLowerCase();
+                case 1, 2, 3, 4, 5, 6 -> first;
+                case 7, 8, 9, 10, 11, 12 -> first + "_" + second;
+                case 13, 14, 15 -> first + Character.toUpperCase(second.charAt(0)) + second.substring(1);
+                default -> first + " " + second + " " + random.nextInt(1000);
+            });
+        }
+        return inputs.toArray(String[]::new);
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.keywords.benchmark;
+
+import com.example.keywords.config.KeywordProperties;
+import com.example.keywords.services.KeywordService;
+import com.example.keywords.services.KeywordSnapshotServiceImpl;
+import com.example.keywords.services.MaskWarmupRunner;
+import com.example.keywords.services.StringMaskService;
+import com.example.keywords.services.StringMaskServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.mockito.Mockito;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Latency of the first mask calls in a fresh JVM, with and without {@link MaskWarmupRunner}.
+ * JIT state is shared by everything in a JVM, so each variant runs in its own process.
+ *
+ * <pre>
+ * mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test \
+ *     -Dexec.args="-cp %classpath com.example.keywords.benchmark.WarmupLatencyBenchmark"
+ * </pre>
+ */
+public class WarmupLatencyBenchmark {
+
+    private static final int REQUESTS = 5_000;
+    private static final List<String> KEYWORDS = MatcherFootprintBenchmark.generateKeywords(250, 3);
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && args[0].equals("--child")) {
+            runChild(Boolean.parseBoolean(args[1]));
+            return;
+        }
+        for (boolean warmup : new boolean[]{false, true}) {
+            Path java = Path.of(System.getProperty("java.home"), "bin", "java");
+            Process process = new ProcessBuilder(java.toString(), "-cp", System.getProperty("java.class.path"),
+                    WarmupLatencyBenchmark.class.getName(), "--child", Boolean.toString(warmup))
+                    .redirectErrorStream(true)
+                    .start();
+            try (BufferedReader output = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+                output.lines().filter(line -> line.startsWith("warmup=")).forEach(System.out::println);
+            }
+            process.waitFor();
+        }
+    }
+
+    private static void runChild(boolean warmup) {
+        KeywordService keywordService = Mockito.mock(KeywordService.class);
+        Mockito.when(keywordService.getAllKeywordWords()).thenReturn(KEYWORDS);
+        KeywordSnapshotServiceImpl snapshotService = new KeywordSnapshotServiceImpl(keywordService, new KeywordProperties());
+        snapshotService.refresh();
+        StringMaskService maskService = new StringMaskServiceImpl(snapshotService);
+
+        if (warmup) {
+            KeywordProperties properties = new KeywordProperties();
+            new MaskWarmupRunner(maskService, snapshotService, properties, new SimpleMeterRegistry()).run();
+        }
+
+        Random random = new Random(11);
+        long[] nanos = new long[REQUESTS];
+        for (int i = 0; i < REQUESTS; i++) {
+            StringBuilder input = new StringBuilder();
+            while (input.length() < 800) {
+                input.append(random.nextInt(4) == 0 ? KEYWORDS.get(random.nextInt(KEYWORDS.size())) : "value")
+                        .append(' ');
+            }
+            long start = System.nanoTime();
+            maskService.maskSensitiveWords(input.toString());
+            nanos[i] = System.nanoTime() - start;
+        }
+
+        long[] first = Arrays.copyOf(nanos, 1_000);
+        Arrays.sort(first);
+        Arrays.sort(nanos);
+        System.out.printf("warmup=%-5s first 1000: p50=%d us p99=%d us max=%d us | all %d: p99=%d us%n",
+                warmup, first[500] / 1000, first[990] / 1000, first[999] / 1000,
+                REQUESTS, nanos[REQUESTS * 99 / 100] / 1000);
+    }
+}
@@ -92,6 +92,20 @@ class ExceptionHandlerTest {
                         containsString("letters, underscores, and asterisks")));
     }
 
+    @Test
+    void testValidationException_ReversedCharacterClass() throws Exception {
+        // Passes the field pattern, but the range in the class runs backwards
+        KeywordDTO invalid = new KeywordDTO();
+        invalid.setWord("[Z-A]BC");
+
+        mockMvc.perform(post("/api/keywords")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(invalid)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value(400))
+                .andExpect(jsonPath("$.message", containsString("is reversed")));
+    }
+
     @Test
     void testValidationException_EmptyKeyword() throws Exception {
         // Try to create empty keyword
@@ -2,6 +2,7 @@ package com.example.keywords.controller;
 
 import com.example.keywords.dto.KeywordDTO;
 import com.example.keywords.dto.MaskRequestDTO;
+import com.example.keywords.services.KeywordResponseCache;
 import com.example.keywords.services.KeywordService;
 import com.example.keywords.services.StringMaskService;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -36,6 +37,9 @@ class KeywordControllerTest {
     @MockBean
     private StringMaskService stringMaskService;
 
+    @MockBean
+    private KeywordResponseCache keywordResponseCache;
+
     @Test
     void createKeyword_ShouldReturnCreated() throws Exception {
         KeywordDTO input = new KeywordDTO();
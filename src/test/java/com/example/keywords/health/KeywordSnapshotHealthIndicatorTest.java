@@ -0,0 +1,78 @@
+package com.example.keywords.health;
+
+import com.example.keywords.matcher.KeywordMatchers;
+import com.example.keywords.matcher.KeywordSnapshot;
+import com.example.keywords.matcher.MatcherType;
+import com.example.keywords.services.KeywordSnapshotService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class KeywordSnapshotHealthIndicatorTest {
+
+    @Mock
+    private KeywordSnapshotService keywordSnapshotService;
+
+    @InjectMocks
+    private KeywordSnapshotHealthIndicator healthIndicator;
+
+    @Test
+    void health_ShouldBeOutOfServiceBeforeFirstSnapshot() {
+        when(keywordSnapshotService.findSnapshot()).thenReturn(Optional.empty());
+
+        assertEquals(Status.OUT_OF_SERVICE, healthIndicator.health().getStatus());
+    }
+
+    @Test
+    void health_ShouldReportSnapshotDetails() {
+        KeywordSnapshot snapshot = new KeywordSnapshot(7L,
+                KeywordMatchers.compile(MatcherType.COMPACT, List.of("SELECT", "FROM")),
+                Instant.now().minusSeconds(30), Duration.ofMillis(12));
+        when(keywordSnapshotService.findSnapshot()).thenReturn(Optional.of(snapshot));
+
+        Health health = healthIndicator.health();
+
+        assertEquals(Status.UP, health.getStatus());
+        assertEquals(7L, health.getDetails().get("version"));
+        assertEquals(2, health.getDetails().get("size"));
+        assertEquals(12L, health.getDetails().get("lastBuildMillis"));
+        assertEquals(30L, health.getDetails().get("ageSeconds"));
+    }
+
+    @Test
+    void health_ShouldStayUpAndReportTheLastFailedRefresh() {
+        KeywordSnapshot snapshot = new KeywordSnapshot(7L,
+                KeywordMatchers.compile(MatcherType.COMPACT, List.of("SELECT")),
+                Instant.now(), Duration.ofMillis(1));
+        when(keywordSnapshotService.findSnapshot()).thenReturn(Optional.of(snapshot));
+        when(keywordSnapshotService.getLastRefreshError())
+                .thenReturn("Keyword patterns expand to more than 4194304 automaton states");
+
+        Health health = healthIndicator.health();
+
+        assertEquals(Status.UP, health.getStatus());
+        assertEquals("Keyword patterns expand to more than 4194304 automaton states",
+                health.getDetails().get("lastRefreshError"));
+    }
+
+    @Test
+    void health_ShouldOmitLastRefreshErrorWhileRefreshesSucceed() {
+        when(keywordSnapshotService.findSnapshot()).thenReturn(Optional.empty());
+
+        assertFalse(healthIndicator.health().getDetails().containsKey("lastRefreshError"));
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.keywords.matcher;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CandidateFilterTest {
+
+    private static final String[] PIECES = {
+            "a", "b", "s", "K", "é", "É", "ı", "ſ", "K", "😀", "_", "1", " ", " ", " ", ".", "-", "\n"
+    };
+
+    @Test
+    void candidateFilter_ShouldUseVectorApiWhenModuleIsPresent() {
+        // Surefire runs with --add-modules jdk.incubator.vector
+        assertTrue(KeywordMatchers.isVectorApiAvailable());
+        KeywordMatcher matcher = KeywordMatchers.compile(MatcherType.COMPACT, List.of("SELECT"));
+
+        assertInstanceOf(VectorCandidateFilter.class, KeywordMatchers.candidateFilter(matcher, true));
+        assertInstanceOf(PairCandidateFilter.class, KeywordMatchers.candidateFilter(matcher, false));
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void scanUtf8_ShouldFindTheSameMatchesWithFilter(boolean vectorized) {
+        Random random = new Random(17);
+        for (int round = 0; round < 100; round++) {
+            List<String> keywords = new ArrayList<>();
+            for (int k = 0; k < 1 + random.nextInt(20); k++) {
+                keywords.add(randomText(random, 1 + random.nextInt(4)));
+            }
+            KeywordMatcher matcher = KeywordMatchers.compile(MatcherType.COMPACT, keywords);
+            CandidateFilter filter = KeywordMatchers.candidateFilter(matcher, vectorized);
+
+            for (int i = 0; i < 20; i++) {
+                byte[] utf8 = randomText(random, random.nextInt(300)).getBytes(StandardCharsets.UTF_8);
+                assertEquals(matches(matcher, utf8, null), matches(matcher, utf8, filter),
+                        keywords + " in '" + new String(utf8, StandardCharsets.UTF_8) + "'");
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void next_ShouldSkipToTheOnlyPossibleStart(boolean vectorized) {
+        KeywordMatcher matcher = KeywordMatchers.compile(MatcherType.COMPACT, List.of("SELECT", "FROM", "ZQ"));
+        CandidateFilter filter = KeywordMatchers.candidateFilter(matcher, vectorized);
+        String text = "the quick brown fox jumps over the lazy dog, frankly nobody watches; then: from x";
+        byte[] utf8 = text.getBytes(StandardCharsets.UTF_8);
+
+        assertEquals(text.indexOf("frankly"), filter.next(utf8, 0, utf8.length));
+        assertEquals(text.indexOf("from"), filter.next(utf8, text.indexOf("frankly") + 1, utf8.length));
+        assertEquals(utf8.length, filter.next(utf8, text.indexOf("from") + 1, utf8.length));
+    }
+
+    private static List<String> matches(KeywordMatcher matcher, byte[] utf8, CandidateFilter filter) {
+        List<String> found = new ArrayList<>();
+        matcher.scanUtf8(utf8, utf8.length, filter,
+                (start, end, keywordIndex) -> found.add(start + ":" + end + ":" + keywordIndex));
+        return found;
+    }
+
+    private static String randomText(Random random, int length) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            text.append(PIECES[random.nextInt(PIECES.length)]);
+        }
+        return text.toString();
+    }
+}
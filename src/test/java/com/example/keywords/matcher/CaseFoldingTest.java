@@ -0,0 +1,175 @@
+package com.example.keywords.matcher;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CaseFoldingTest {
+
+    // Case variants that ASCII-only or locale-sensitive folding gets wrong
+    private static final char[] ALPHABET = {
+            'a', 'b', 'i', 'k', 's', 'I', 'K', 'S', '_', '1', ' ', ' ', '-', '.',
+            'İ', 'ı', 'K', 'ſ', 'ß', 'É', 'é', 'Σ', 'σ', 'ς',
+            'Ж', 'ж', 'ǅ', 'Ǆ', 'ǆ', 'µ', 'Μ'
+    };
+
+    @Test
+    void fold_ShouldKeepEveryCharEqualIgnoringCaseToItsFoldedForm() {
+        for (int c = 0; c <= Character.MAX_VALUE; c++) {
+            char ch = (char) c;
+            char folded = KeywordMatchers.fold(ch);
+            assertTrue(equalsIgnoreCase(ch, folded),
+                    () -> String.format("U+%04X folds to U+%04X", (int) ch, (int) folded));
+        }
+    }
+
+    @Test
+    void fold_ShouldMapEveryCaseVariantToTheSameChar() {
+        // equalsIgnoreCase relates a and b through their upper and lower forms, so a fold that is
+        // constant along those edges agrees with it for every pair of chars
+        for (int c = 0; c <= Character.MAX_VALUE; c++) {
+            char ch = (char) c;
+            char folded = KeywordMatchers.fold(ch);
+            char upper = Character.toUpperCase(ch);
+            assertEquals(folded, KeywordMatchers.fold(upper), () -> String.format("U+%04X upper", (int) ch));
+            assertEquals(folded, KeywordMatchers.fold(Character.toLowerCase(ch)), () -> String.format("U+%04X lower", (int) ch));
+            assertEquals(folded, KeywordMatchers.fold(Character.toLowerCase(upper)), () -> String.format("U+%04X", (int) ch));
+        }
+    }
+
+    @Test
+    void fold_ShouldNotDependOnDefaultLocale() {
+        Locale previous = Locale.getDefault();
+        try {
+            Locale.setDefault(Locale.forLanguageTag("tr-TR"));
+            assertEquals("FIX", KeywordMatchers.fold("fix"));
+            // Folding must keep offsets, so sharp s stays one char
+            assertEquals("STRAßE", KeywordMatchers.fold("straße"));
+        } finally {
+            Locale.setDefault(previous);
+        }
+    }
+
+    @Test
+    void normalize_ShouldMapEveryWhitespaceCharToSpaceAndFoldTheRest() {
+        for (int c = 0; c <= Character.MAX_VALUE; c++) {
+            char ch = (char) c;
+            char expected = Character.isWhitespace(ch) || Character.isSpaceChar(ch) ? ' ' : KeywordMatchers.fold(ch);
+            assertEquals(expected, KeywordMatchers.normalize(ch), () -> String.format("U+%04X", (int) ch));
+        }
+        assertEquals("SELECT * FROM", KeywordMatchers.normalize(" select\t*\u00A0\n from  "));
+    }
+
+    @Test
+    void isWordChar_ShouldTreatLettersOfAnyScriptAsWordChars() {
+        assertTrue(KeywordMatchers.isWordChar('é'));
+        assertTrue(KeywordMatchers.isWordChar('ж'));
+        assertTrue(KeywordMatchers.isWordChar('_'));
+        assertEquals(false, KeywordMatchers.isWordChar('-'));
+        assertEquals(false, KeywordMatchers.isWordChar(' '));
+    }
+
+    @Test
+    void scan_ShouldAgreeWithReferenceMatcherOnRandomUnicodeInput() {
+        Random random = new Random(7);
+        for (int round = 0; round < 300; round++) {
+            List<String> keywords = new ArrayList<>();
+            for (int k = 0; k < 1 + random.nextInt(12); k++) {
+                keywords.add(randomText(random, 1 + random.nextInt(4)));
+            }
+            String text = randomText(random, 200);
+
+            for (MatcherType type : MatcherType.values()) {
+                KeywordMatcher matcher = KeywordMatchers.compile(type, keywords);
+                List<int[]> actual = new ArrayList<>();
+                matcher.scan(text, (start, end, keywordIndex) -> actual.add(new int[]{start, end}));
+
+                assertEquals(format(referenceScan(keywords, text)), format(actual),
+                        type + " " + keywords + " in '" + text + "'");
+            }
+        }
+    }
+
+    // Leftmost-longest, whole-word scan that compares chars with String.equalsIgnoreCase; a space
+    // of a whitespace-normalized keyword stands for a whitespace run of the text
+    private static List<int[]> referenceScan(List<String> keywords, String text) {
+        List<int[]> matches = new ArrayList<>();
+        int i = 0;
+        while (i < text.length()) {
+            int best = -1;
+            if (i == 0 || !isWord(text.charAt(i)) || !isWord(text.charAt(i - 1))) {
+                for (String keyword : keywords) {
+                    int end = referenceMatchEnd(KeywordMatchers.normalizeWhitespace(keyword), text, i);
+                    if (end > best
+                            && (end == text.length() || !isWord(text.charAt(end - 1)) || !isWord(text.charAt(end)))) {
+                        best = end;
+                    }
+                }
+            }
+            if (best < 0) {
+                i++;
+            } else {
+                matches.add(new int[]{i, best});
+                i = best;
+            }
+        }
+        return matches;
+    }
+
+    private static int referenceMatchEnd(String keyword, String text, int start) {
+        if (keyword.isEmpty()) {
+            return -1;
+        }
+        int j = start;
+        for (int k = 0; k < keyword.length(); k++) {
+            if (j == text.length()) {
+                return -1;
+            }
+            if (keyword.charAt(k) == ' ') {
+                if (!isSpace(text.charAt(j))) {
+                    return -1;
+                }
+                while (j < text.length() && isSpace(text.charAt(j))) {
+                    j++;
+                }
+            } else if (equalsIgnoreCase(keyword.charAt(k), text.charAt(j)) && !isSpace(text.charAt(j))) {
+                j++;
+            } else {
+                return -1;
+            }
+        }
+        return j;
+    }
+
+    private static boolean isSpace(char c) {
+        return Character.isWhitespace(c) || Character.isSpaceChar(c);
+    }
+
+    private static boolean isWord(char c) {
+        return Character.isLetterOrDigit(c) || c == '_';
+    }
+
+    private static boolean equalsIgnoreCase(char a, char b) {
+        return String.valueOf(a).equalsIgnoreCase(String.valueOf(b));
+    }
+
+    private static String randomText(Random random, int length) {
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = ALPHABET[random.nextInt(ALPHABET.length)];
+        }
+        return new String(chars);
+    }
+
+    private static String format(List<int[]> matches) {
+        StringBuilder out = new StringBuilder();
+        matches.forEach(m -> out.append('[').append(m[0]).append(',').append(m[1]).append(']'));
+        return out.toString();
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.keywords.matcher;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FuzzyKeywordIndexTest {
+
+    private static final Duration BUDGET = Duration.ofSeconds(1);
+
+    @Test
+    void canonicalize_ShouldMapLookAlikesDropInnerSeparatorsAndCollapseRuns() {
+        assertEquals("SELECT", FuzzyKeywordIndex.canonicalize("select"));
+        assertEquals("SELECT", FuzzyKeywordIndex.canonicalize("$3L.E-C_T"));
+        assertEquals("COMIT", FuzzyKeywordIndex.canonicalize("COMMIT"));
+        assertEquals("XPCMDSHEL", FuzzyKeywordIndex.canonicalize("XP_CMDSHELL"));
+        assertEquals("DROP TABLE", FuzzyKeywordIndex.canonicalize("  dr0p \t t4ble "));
+        assertEquals("INSERT", FuzzyKeywordIndex.canonicalize("|n$3rt"));
+        assertEquals("INSERT", FuzzyKeywordIndex.canonicalize("1NSERT"));
+        // Separators next to whitespace or at either end are kept
+        assertEquals("SELECT * FROM", FuzzyKeywordIndex.canonicalize("SELECT * FROM"));
+        assertEquals("-A.", FuzzyKeywordIndex.canonicalize("-a."));
+    }
+
+    @ParameterizedTest
+    @EnumSource(MatcherType.class)
+    void scan_ShouldReportDisguisedKeywordsWithOriginalOffsets(MatcherType type) {
+        FuzzyKeywordIndex index = FuzzyKeywordIndex.build(type, List.of("SELECT", "DROP TABLE", "FROM"), BUDGET);
+
+        assertEquals(List.of("0:11:0", "12:16:2", "17:33:1"), matches(index, "S.E.L.E.C.T FR0M dr00p   t-4-b-le"));
+        assertEquals(List.of("4:12:0"), matches(index, "xyz SSSELECT"));
+        assertEquals(List.of(), matches(index, "selection from_date s3lectx"));
+    }
+
+    @Test
+    void canonicalize_ShouldKeepLettersApart() {
+        assertEquals("AL", FuzzyKeywordIndex.canonicalize("ALL"));
+        assertEquals("FIL", FuzzyKeywordIndex.canonicalize("FILL"));
+        assertEquals("OIL", FuzzyKeywordIndex.canonicalize("oil"));
+        assertEquals("BOX", FuzzyKeywordIndex.canonicalize("box"));
+    }
+
+    @ParameterizedTest
+    @EnumSource(MatcherType.class)
+    void scan_ShouldNotMatchOrdinaryWordsThatOnlyShareLetterShapes(MatcherType type) {
+        FuzzyKeywordIndex index = FuzzyKeywordIndex.build(type, List.of("ALL", "FILL", "BILL", "CALL", "SELECT"), BUDGET);
+
+        assertEquals(List.of(), matches(index, "ai fi bi cai fii aiii aid fiji bail sieve"));
+        assertEquals(List.of(), matches(index, "I said I will file it if I can, but it is a big if."));
+        assertEquals(List.of("13:17:1", "25:29:2"), matches(index, "Please could fill in the bill"));
+    }
+
+    @Test
+    void build_ShouldLeavePatternKeywordsToTheExactMatcher() {
+        FuzzyKeywordIndex index = FuzzyKeywordIndex.build(MatcherType.COMPACT, List.of("SYS*", "DR0P"), BUDGET);
+
+        assertEquals(List.of("6:10:1"), matches(index, "s.y.s drop"));
+    }
+
+    @Test
+    void scan_ShouldGiveUpOnceTheBudgetIsSpent() {
+        FuzzyKeywordIndex index = FuzzyKeywordIndex.build(MatcherType.COMPACT, List.of("SELECT"), Duration.ZERO);
+        List<String> found = new ArrayList<>();
+
+        boolean complete = index.scan("s3lect ".repeat(1000), (start, end, keywordIndex) -> found.add(start + ":" + end));
+
+        assertFalse(complete);
+        assertTrue(found.isEmpty());
+    }
+
+    private static List<String> matches(FuzzyKeywordIndex index, String text) {
+        List<String> found = new ArrayList<>();
+        assertTrue(index.scan(text, (start, end, keywordIndex) -> found.add(start + ":" + end + ":" + keywordIndex)));
+        return found;
+    }
+}
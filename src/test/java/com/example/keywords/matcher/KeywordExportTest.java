@@ -0,0 +1,112 @@
+package com.example.keywords.matcher;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class KeywordExportTest {
+
+    private static final List<String> KEYWORDS = List.of(
+            "SELECT", "FROM", "WHERE", "CURRENT", "CURRENT_USER", "SYSTBLDEF", "SYSTBT", "ÉTÉ", "DROP TABLE",
+            "SYSTBL*", "S?S", "[BC]AT", "😀 SMILE", "A");
+
+    @Test
+    void roundTrip_ShouldReturnEveryKeywordSorted() throws IOException {
+        KeywordExport export = KeywordExport.read(new ByteArrayInputStream(KeywordExport.write(42L, KEYWORDS, false)));
+
+        List<String> sorted = new ArrayList<>(KEYWORDS);
+        sorted.sort(null);
+        assertEquals(42L, export.getKeywordSetVersion());
+        assertEquals(sorted, export.getKeywords());
+        assertNull(export.getMatcherImage());
+    }
+
+    @Test
+    void roundTrip_ShouldBeLosslessForRandomUnicodeKeywords() throws IOException {
+        String[] pieces = {"A", "B", "SYS", "_", " ", "É", "ß", "中", "😀", "*", "?", "0"};
+        Random random = new Random(3);
+        for (int round = 0; round < 200; round++) {
+            Set<String> keywords = new HashSet<>();
+            int count = random.nextInt(40);
+            while (keywords.size() < count) {
+                StringBuilder keyword = new StringBuilder();
+                for (int i = 0; i < 1 + random.nextInt(8); i++) {
+                    keyword.append(pieces[random.nextInt(pieces.length)]);
+                }
+                keywords.add(keyword.toString());
+            }
+            long version = random.nextLong();
+
+            KeywordExport export = KeywordExport.read(KeywordExport.write(version, keywords, false));
+
+            assertEquals(version, export.getKeywordSetVersion());
+            assertEquals(keywords, new HashSet<>(export.getKeywords()));
+            assertEquals(keywords.size(), export.getKeywords().size());
+        }
+    }
+
+    @Test
+    void matcherImage_ShouldMatchLikeAMatcherCompiledFromTheLoadedKeywords() throws IOException {
+        KeywordExport export = KeywordExport.read(KeywordExport.write(7L, KEYWORDS, true));
+
+        assertNotNull(export.getMatcherImage());
+        assertEquals(7L, export.getMatcherImage().getKeywordSetVersion());
+        KeywordMatcher compiled = CompactKeywordMatcher.build(export.getKeywords());
+        String text = "select a, current_user FROM systbldefx where s_s = ÉTÉ and drop  table cat 😀 smile";
+        List<String> found = matches(export.getMatcherImage().getMatcher(), text);
+        assertEquals(matches(compiled, text), found);
+        assertTrue(found.size() > 5, found.toString());
+    }
+
+    @Test
+    void write_ShouldFrontCodeSharedPrefixes() {
+        List<String> keywords = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            keywords.add("SYSTEM_CATALOG_TABLE_" + i);
+        }
+        int plainSize = keywords.stream().mapToInt(k -> k.getBytes(StandardCharsets.UTF_8).length + 1).sum();
+
+        byte[] bytes = KeywordExport.write(1L, keywords, false);
+
+        assertTrue(bytes.length < plainSize / 3, bytes.length + " of " + plainSize);
+    }
+
+    @Test
+    void read_ShouldRejectCorruptOrTruncatedExports() {
+        byte[] bytes = KeywordExport.write(1L, KEYWORDS, true);
+
+        byte[] flipped = bytes.clone();
+        flipped[40] ^= 0x01;
+        assertThrows(IOException.class, () -> KeywordExport.read(flipped));
+        assertThrows(IOException.class, () -> KeywordExport.read(Arrays.copyOf(bytes, bytes.length - 9)));
+        assertThrows(IOException.class, () -> KeywordExport.read(new byte[12]));
+    }
+
+    @Test
+    void roundTrip_ShouldKeepAnEmptyKeywordSet() throws IOException {
+        KeywordExport export = KeywordExport.read(KeywordExport.write(0L, List.of(), true));
+
+        assertEquals(List.of(), export.getKeywords());
+        assertEquals(0, export.getMatcherImage().getMatcher().keywordCount());
+    }
+
+    private static List<String> matches(KeywordMatcher matcher, String text) {
+        List<String> found = new ArrayList<>();
+        matcher.scan(text, (start, end, keywordIndex) -> found.add(start + ":" + end + ":" + keywordIndex));
+        return found;
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.keywords.matcher;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+class KeywordHitCountersTest {
+
+    @Test
+    void drain_ShouldSumEveryThreadsIncrementsAndReset() throws InterruptedException {
+        KeywordHitCounters counters = new KeywordHitCounters(3);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    counters.increment(i % 2 == 0 ? 0 : 2);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertArrayEquals(new long[]{40_000, 0, 40_000}, counters.drain());
+        assertArrayEquals(new long[]{0, 0, 0}, counters.drain());
+    }
+
+    @Test
+    void drain_ShouldNotLoseIncrementsMadeWhileDraining() throws InterruptedException {
+        KeywordHitCounters counters = new KeywordHitCounters(1);
+        Thread writer = new Thread(() -> {
+            for (int i = 0; i < 200_000; i++) {
+                counters.increment(0);
+            }
+        });
+        writer.start();
+        long total = 0;
+        while (writer.isAlive()) {
+            total += counters.drain()[0];
+        }
+        writer.join();
+        total += counters.drain()[0];
+
+        assertArrayEquals(new long[]{200_000}, new long[]{total});
+    }
+
+    @Test
+    void drain_ShouldReportOnlyTheHitKeywordsOfALargeSet() {
+        KeywordHitCounters counters = new KeywordHitCounters(100_000);
+        counters.increment(7);
+        counters.increment(99_999);
+        counters.increment(7);
+
+        long[] expected = new long[100_000];
+        expected[7] = 2;
+        expected[99_999] = 1;
+        assertArrayEquals(expected, counters.drain());
+        assertArrayEquals(new long[100_000], counters.drain());
+    }
+}
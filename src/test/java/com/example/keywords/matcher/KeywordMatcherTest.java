@@ -0,0 +1,216 @@
+package com.example.keywords.matcher;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class KeywordMatcherTest {
+
+    private static final List<String> KEYWORDS = Arrays.asList(
+            "SELECT", "FROM", "WHERE", "CURRENT", "CURRENT_USER", "USER", "SELECT * FROM");
+
+    @ParameterizedTest
+    @EnumSource(MatcherType.class)
+    void scan_ShouldMatchWholeWordsCaseInsensitive(MatcherType type) {
+        KeywordMatcher matcher = KeywordMatchers.compile(type, KEYWORDS);
+
+        assertEquals("****** users ***** id = 1", mask(matcher, "select users WHERE id = 1"));
+        assertEquals("selection fromage", mask(matcher, "selection fromage"));
+        assertEquals("******;****", mask(matcher, "SELECT;from"));
+    }
+
+    @ParameterizedTest
+    @EnumSource(MatcherType.class)
+    void scan_ShouldPreferLongestMatch(MatcherType type) {
+        KeywordMatcher matcher = KeywordMatchers.compile(type, KEYWORDS);
+
+        assertEquals("************ x", mask(matcher, "CURRENT_USER x"));
+        assertEquals("************* users", mask(matcher, "SELECT * FROM users"));
+        assertEquals("******* x", mask(matcher, "current x"));
+    }
+
+    @ParameterizedTest
+    @EnumSource(MatcherType.class)
+    void scan_ShouldReportKeywordIndex(MatcherType type) {
+        KeywordMatcher matcher = KeywordMatchers.compile(type, List.of("ALPHA", "beta", "BETA"));
+        List<Integer> hits = new ArrayList<>();
+
+        matcher.scan("beta alpha", (start, end, keywordIndex) -> hits.add(keywordIndex));
+
+        assertEquals(List.of(1, 0), hits);
+    }
+
+    @ParameterizedTest
+    @EnumSource(MatcherType.class)
+    void scan_ShouldIgnoreEmptyKeywords(MatcherType type) {
+        KeywordMatcher matcher = KeywordMatchers.compile(type, List.of("", "A"));
+
+        assertEquals("* b", mask(matcher, "a b"));
+    }
+
+    @ParameterizedTest
+    @EnumSource(MatcherType.class)
+    void scan_ShouldMatchPhraseAcrossAnyWhitespaceRun(MatcherType type) {
+        KeywordMatcher matcher = KeywordMatchers.compile(type, List.of("  drop\t table ", "ORDER BY"));
+
+        assertEquals("********** x", mask(matcher, "DROP TABLE x"));
+        assertEquals("************** x", mask(matcher, "drop \t\n  table x"));
+        assertEquals("**********", mask(matcher, "order\u00A0\u00A0\u00A0by"));
+        assertEquals("drop tables", mask(matcher, "drop tables"));
+        assertEquals("drop\ttab le", mask(matcher, "drop\ttab le"));
+        assertEquals("xorder by", mask(matcher, "xorder by"));
+    }
+
+    @ParameterizedTest
+    @EnumSource(MatcherType.class)
+    void scan_ShouldNotNeedBoundariesAroundNonWordCharsOfPhrase(MatcherType type) {
+        KeywordMatcher matcher = KeywordMatchers.compile(type, List.of("SELECT * FROM", "* FROM"));
+
+        assertEquals("(**************)", mask(matcher, "(select *  from)"));
+        assertEquals("x******", mask(matcher, "x* from"));
+        assertEquals("select * fromage", mask(matcher, "select * fromage"));
+    }
+
+    @ParameterizedTest
+    @EnumSource(MatcherType.class)
+    void scanUtf8_ShouldMatchPhraseAcrossAnyWhitespaceRun(MatcherType type) {
+        KeywordMatcher matcher = KeywordMatchers.compile(type, List.of("DROP TABLE", "é é"));
+        String text = "x drop\u00A0\u2003 \ttable é\n\né";
+        byte[] utf8 = text.getBytes(StandardCharsets.UTF_8);
+        List<String> found = new ArrayList<>();
+
+        matcher.scanUtf8(utf8, utf8.length, (start, end, keywordIndex) -> found.add(
+                Utf8.utf16Length(utf8, 0, start) + ":" + Utf8.utf16Length(utf8, 0, end) + ":" + keywordIndex));
+
+        assertEquals(matches(matcher, text), found);
+        assertEquals(List.of("2:15:0", "16:20:1"), found);
+    }
+
+    @Test
+    void compactMatcher_ShouldAgreeWithTrieOnRandomInput() {
+        Random random = new Random(42);
+        List<String> keywords = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            keywords.add(randomWord(random, 1 + random.nextInt(6)));
+        }
+        KeywordMatcher trie = KeywordMatchers.compile(MatcherType.TRIE, keywords);
+        KeywordMatcher compact = KeywordMatchers.compile(MatcherType.COMPACT, keywords);
+
+        assertEquals(trie.stateCount(), compact.stateCount());
+        for (int i = 0; i < 200; i++) {
+            StringBuilder text = new StringBuilder();
+            for (int w = 0; w < 20; w++) {
+                text.append(randomWord(random, 1 + random.nextInt(6))).append(random.nextBoolean() ? ' ' : '.');
+            }
+            assertEquals(matches(trie, text.toString()), matches(compact, text.toString()));
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(MatcherType.class)
+    void scanUtf8_ShouldAgreeWithScanOnDecodedText(MatcherType type) {
+        String[] pieces = {"a", "b", "é", "É", "ж", "_", " ", ".", "😀", "€", "1"};
+        Random random = new Random(3);
+        List<String> keywords = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            keywords.add(randomText(random, pieces, 1 + random.nextInt(4)));
+        }
+        KeywordMatcher matcher = KeywordMatchers.compile(type, keywords);
+
+        for (int i = 0; i < 300; i++) {
+            String text = randomText(random, pieces, 60);
+            byte[] utf8 = text.getBytes(StandardCharsets.UTF_8);
+            List<String> found = new ArrayList<>();
+            matcher.scanUtf8(utf8, utf8.length, (start, end, keywordIndex) -> found.add(
+                    Utf8.utf16Length(utf8, 0, start) + ":" + Utf8.utf16Length(utf8, 0, end) + ":" + keywordIndex));
+
+            assertEquals(matches(matcher, text), found, text);
+        }
+    }
+
+    @Test
+    void scanUtf8_ShouldTreatMalformedBytesAsNonWordChars() {
+        KeywordMatcher matcher = KeywordMatchers.compile(MatcherType.COMPACT, List.of("AB"));
+        byte[] utf8 = {(byte) 0xC3, 'a', 'b', (byte) 0xFF};
+        List<String> found = new ArrayList<>();
+
+        matcher.scanUtf8(utf8, utf8.length, (start, end, keywordIndex) -> found.add(start + ":" + end));
+
+        assertEquals(List.of("1:3"), found);
+    }
+
+    @ParameterizedTest
+    @EnumSource(MatcherType.class)
+    void scanUtf8_ShouldMatchLikeTheDecodedStringOnIllFormedSequences(MatcherType type) {
+        // Overlong 'A', overlong NUL, a surrogate, a code point above U+10FFFF, a truncated euro sign
+        // and stray bytes, between valid text
+        byte[][] pieces = {
+                {'a'}, {'b'}, {' '}, bytes("é"), bytes("😀"),
+                {(byte) 0xE0, (byte) 0x81, (byte) 0x81}, {(byte) 0xC0, (byte) 0x80},
+                {(byte) 0xED, (byte) 0xA0, (byte) 0x80}, {(byte) 0xF4, (byte) 0x90, (byte) 0x80, (byte) 0x80},
+                {(byte) 0xE2, (byte) 0x82}, {(byte) 0x80}, {(byte) 0xFF}
+        };
+        KeywordMatcher matcher = KeywordMatchers.compile(type, List.of("A", "AB", "BA", "É", "AÉ"));
+        Random random = new Random(5);
+
+        for (int i = 0; i < 500; i++) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            for (int p = 0; p < 30; p++) {
+                out.writeBytes(pieces[random.nextInt(pieces.length)]);
+            }
+            byte[] utf8 = out.toByteArray();
+            String text = new String(utf8, StandardCharsets.UTF_8);
+            List<String> found = new ArrayList<>();
+            matcher.scanUtf8(utf8, utf8.length, (start, end, keywordIndex) -> found.add(
+                    new String(utf8, start, end - start, StandardCharsets.UTF_8) + ":" + keywordIndex));
+            List<String> expected = new ArrayList<>();
+            matcher.scan(text, (start, end, keywordIndex) -> expected.add(text.substring(start, end) + ":" + keywordIndex));
+
+            assertEquals(expected, found, text);
+        }
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String randomText(Random random, String[] pieces, int length) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            text.append(pieces[random.nextInt(pieces.length)]);
+        }
+        return text.toString();
+    }
+
+    private static String randomWord(Random random, int length) {
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            word.append((char) ('a' + random.nextInt(4)));
+        }
+        return word.toString();
+    }
+
+    private static List<String> matches(KeywordMatcher matcher, String text) {
+        List<String> found = new ArrayList<>();
+        matcher.scan(text, (start, end, keywordIndex) -> found.add(start + ":" + end + ":" + keywordIndex));
+        return found;
+    }
+
+    private static String mask(KeywordMatcher matcher, String text) {
+        char[] chars = text.toCharArray();
+        matcher.scan(text, (start, end, keywordIndex) -> {
+            Arrays.fill(chars, start, end, '*');
+            return true;
+        });
+        return new String(chars);
+    }
+}
@@ -0,0 +1,194 @@
+package com.example.keywords.matcher;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class KeywordPatternTest {
+
+    @Test
+    void parse_ShouldOnlyTreatTrailingStarAfterAWordAsWildcard() {
+        assertFalse(KeywordPattern.parse("SYSTBL*").isLiteral());
+        assertFalse(KeywordPattern.parse("DROP TAB* CASCADE").isLiteral());
+        assertFalse(KeywordPattern.parse("S?S").isLiteral());
+        assertFalse(KeywordPattern.parse("[BC]AT").isLiteral());
+        assertTrue(KeywordPattern.parse("SELECT * FROM").isLiteral());
+        assertTrue(KeywordPattern.parse("A*B").isLiteral());
+        assertTrue(KeywordPattern.parse("*").isLiteral());
+    }
+
+    @Test
+    void parse_ShouldRejectMalformedClasses() {
+        assertThrows(IllegalArgumentException.class, () -> KeywordPattern.parse("SYS[TB"));
+        assertThrows(IllegalArgumentException.class, () -> KeywordPattern.parse("A[]B"));
+        assertThrows(IllegalArgumentException.class, () -> KeywordPattern.parse("[Z-A]BC"));
+        assertThrows(IllegalArgumentException.class, () -> KeywordPattern.parse("[\u0000-￾]"));
+    }
+
+    @ParameterizedTest
+    @EnumSource(MatcherType.class)
+    void scan_ShouldMatchTheRestOfAWordAfterTrailingStar(MatcherType type) {
+        KeywordMatcher matcher = KeywordMatchers.compile(type, List.of("SYSTBL*", "DROP TAB* CASCADE"));
+
+        assertEquals("****** ********* ******* systb xsystbl",
+                mask(matcher, "systbl systbldef SYSTBLx systb xsystbl"));
+        assertEquals("********************* x", mask(matcher, "drop tables   cascade x"));
+        assertEquals("drop table", mask(matcher, "drop table"));
+    }
+
+    @ParameterizedTest
+    @EnumSource(MatcherType.class)
+    void scan_ShouldMatchOneWordCharForQuestionMarkAndOneClassCharForClass(MatcherType type) {
+        KeywordMatcher matcher = KeywordMatchers.compile(type, List.of("S?S", "[b-c]AT", "[-.]X"));
+
+        assertEquals("*** *** *** ss s-s sass", mask(matcher, "sys SAS s_s ss s-s sass"));
+        assertEquals("*** *** hat", mask(matcher, "bat CAT hat"));
+        assertEquals("a** ** y", mask(matcher, "a-x .x y"));
+    }
+
+    @ParameterizedTest
+    @EnumSource(MatcherType.class)
+    void scan_ShouldPreferLongestMatchThenLowestIndexAcrossPatternsAndWords(MatcherType type) {
+        List<String> found = new ArrayList<>();
+        KeywordMatcher matcher = KeywordMatchers.compile(type, List.of("SYS*", "SYSTEM_USER", "A?", "AB CD"));
+
+        matcher.scan("system_user ab cd ab", (start, end, keywordIndex) -> found.add(start + ":" + end + ":" + keywordIndex));
+
+        assertEquals(List.of("0:11:0", "12:17:3", "18:20:2"), found);
+    }
+
+    @ParameterizedTest
+    @EnumSource(MatcherType.class)
+    void scan_ShouldAgreeWithRegexReferenceOnRandomPatterns(MatcherType type) {
+        String[] patternPieces = {"a", "b", "_", "?", "[ab]", "[a-b_]", "*", " ", "-"};
+        String[] textPieces = {"a", "b", "A", "_", "1", " ", " ", "\t", "-", ".", "*"};
+        Random random = new Random(11);
+        for (int round = 0; round < 400; round++) {
+            List<String> keywords = new ArrayList<>();
+            for (int k = 0; k < 1 + random.nextInt(6); k++) {
+                keywords.add(randomText(random, patternPieces, 1 + random.nextInt(5)));
+            }
+            KeywordMatcher matcher = KeywordMatchers.compile(type, keywords);
+
+            for (int i = 0; i < 10; i++) {
+                String text = randomText(random, textPieces, 30);
+                List<String> expected = referenceScan(keywords, text);
+                assertEquals(expected, matches(matcher, text), type + " " + keywords + " in '" + text + "'");
+
+                byte[] utf8 = text.getBytes(StandardCharsets.UTF_8);
+                List<String> found = new ArrayList<>();
+                matcher.scanUtf8(utf8, utf8.length, (start, end, keywordIndex) -> found.add(start + ":" + end + ":" + keywordIndex));
+                assertEquals(expected, found, "UTF-8 " + keywords + " in '" + text + "'");
+            }
+        }
+    }
+
+    // Whole-word, leftmost-longest scan that matches each keyword as a regular expression
+    private static List<String> referenceScan(List<String> keywords, String text) {
+        List<Pattern> patterns = new ArrayList<>();
+        for (String keyword : keywords) {
+            patterns.add(toRegex(KeywordMatchers.normalizeWhitespace(keyword)));
+        }
+        List<String> found = new ArrayList<>();
+        int i = 0;
+        while (i < text.length()) {
+            int bestEnd = -1;
+            int bestKeyword = -1;
+            if (i == 0 || !isWord(text.charAt(i)) || !isWord(text.charAt(i - 1))) {
+                for (int k = 0; k < patterns.size(); k++) {
+                    if (patterns.get(k) == null) {
+                        continue;
+                    }
+                    for (int end = text.length(); end > Math.max(i, bestEnd); end--) {
+                        boolean boundary = end == text.length() || !isWord(text.charAt(end - 1)) || !isWord(text.charAt(end));
+                        Matcher m = patterns.get(k).matcher(text).region(i, end);
+                        if (boundary && m.matches()) {
+                            bestEnd = end;
+                            bestKeyword = k;
+                            break;
+                        }
+                    }
+                }
+            }
+            if (bestKeyword < 0) {
+                i++;
+            } else {
+                found.add(i + ":" + bestEnd + ":" + bestKeyword);
+                i = bestEnd;
+            }
+        }
+        return found;
+    }
+
+    private static Pattern toRegex(String keyword) {
+        if (keyword.isEmpty()) {
+            return null;
+        }
+        StringBuilder regex = new StringBuilder();
+        boolean previousIsWord = false;
+        for (int i = 0; i < keyword.length(); i++) {
+            char c = keyword.charAt(i);
+            boolean endsWord = i + 1 == keyword.length() || keyword.charAt(i + 1) == ' ';
+            if (c == '?') {
+                regex.append("\\w");
+                previousIsWord = true;
+            } else if (c == '[') {
+                int close = keyword.indexOf(']', i);
+                // The generated classes only hold word chars and ranges between them
+                regex.append(keyword, i, close + 1);
+                previousIsWord = true;
+                i = close;
+            } else if (c == '*' && previousIsWord && endsWord) {
+                regex.append("\\w*");
+                previousIsWord = false;
+            } else if (c == ' ') {
+                regex.append("\\s+");
+                previousIsWord = false;
+            } else {
+                regex.append(Pattern.quote(String.valueOf(c)));
+                previousIsWord = isWord(c);
+            }
+        }
+        return Pattern.compile(regex.toString(), Pattern.CASE_INSENSITIVE);
+    }
+
+    private static boolean isWord(char c) {
+        return Character.isLetterOrDigit(c) || c == '_';
+    }
+
+    private static String randomText(Random random, String[] pieces, int length) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            text.append(pieces[random.nextInt(pieces.length)]);
+        }
+        return text.toString();
+    }
+
+    private static List<String> matches(KeywordMatcher matcher, String text) {
+        List<String> found = new ArrayList<>();
+        matcher.scan(text, (start, end, keywordIndex) -> found.add(start + ":" + end + ":" + keywordIndex));
+        return found;
+    }
+
+    private static String mask(KeywordMatcher matcher, String text) {
+        char[] chars = text.toCharArray();
+        matcher.scan(text, (start, end, keywordIndex) -> {
+            Arrays.fill(chars, start, end, '*');
+            return true;
+        });
+        return new String(chars);
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.keywords.matcher;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MatcherImageTest {
+
+    private static final List<String> KEYWORDS = List.of(
+            "SELECT", "FROM", "WHERE", "CURRENT", "CURRENT_USER", "SYSTBLDEF", "SYSTBT", "A", "B", "C", "D",
+            "E", "F", "G", "H", "I", "J", "ÉTÉ");
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void mappedImage_ShouldMatchLikeTheInMemoryMatcher() throws IOException {
+        CompactKeywordMatcher compiled = CompactKeywordMatcher.build(KEYWORDS);
+        Path path = tempDir.resolve("matcher.img");
+
+        MatcherImage.write(path, compiled, 42L);
+        MatcherImage image = MatcherImage.map(path, true);
+
+        assertEquals(42L, image.getKeywordSetVersion());
+        assertEquals(compiled.stateCount(), image.getMatcher().stateCount());
+        assertEquals(compiled.keywordCount(), image.getMatcher().keywordCount());
+        String text = "select a, current_user FROM systbt where b = ÉTÉ AND systbldefx";
+        assertEquals(matches(compiled, text), matches(image.getMatcher(), text));
+    }
+
+    @Test
+    void mappedImage_ShouldKeepPatternEdgeTargetsAndWildcards() throws IOException {
+        CompactKeywordMatcher compiled = CompactKeywordMatcher.build(List.of("SYSTBL*", "S?S", "[BC]AT", "SYSTEM_USER"));
+        Path path = tempDir.resolve("patterns.img");
+
+        MatcherImage.write(path, compiled, 3L);
+        MatcherImage image = MatcherImage.map(path, true);
+
+        String text = "systbldef sys sus bat cat hat system_user systbl";
+        assertEquals(List.of("0:9:0", "10:13:1", "14:17:1", "18:21:2", "22:25:2", "30:41:3", "42:48:0"),
+                matches(image.getMatcher(), text));
+        assertEquals(matches(compiled, text), matches(image.getMatcher(), text));
+    }
+
+    @Test
+    void map_ShouldRejectCorruptPayload() throws IOException {
+        Path path = tempDir.resolve("matcher.img");
+        MatcherImage.write(path, CompactKeywordMatcher.build(KEYWORDS), 1L);
+        byte[] bytes = Files.readAllBytes(path);
+        bytes[bytes.length - 1] ^= 0x01;
+        Files.write(path, bytes);
+
+        assertThrows(IOException.class, () -> MatcherImage.map(path, true));
+    }
+
+    @Test
+    void map_ShouldRejectForeignFile() throws IOException {
+        Path path = tempDir.resolve("matcher.img");
+        Files.write(path, new byte[64]);
+
+        assertThrows(IOException.class, () -> MatcherImage.map(path, false));
+    }
+
+    private static List<String> matches(KeywordMatcher matcher, String text) {
+        List<String> found = new ArrayList<>();
+        matcher.scan(text, (start, end, keywordIndex) -> found.add(start + ":" + end + ":" + keywordIndex));
+        return found;
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.keywords.matcher;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBloomFilterTest {
+
+    private static final String[] PIECES = {
+            "a", "b", "k", "S", "é", "ı", "K", "ͅ", "_", "1", " ", " ", "*", "-", "."
+    };
+
+    @ParameterizedTest
+    @EnumSource(MatcherType.class)
+    void mightMatch_ShouldNeverRuleOutTextWithAMatch(MatcherType type) {
+        Random random = new Random(23);
+        for (int round = 0; round < 300; round++) {
+            List<String> keywords = new ArrayList<>();
+            for (int k = 0; k < 1 + random.nextInt(10); k++) {
+                keywords.add(randomText(random, 1 + random.nextInt(5)));
+            }
+            KeywordMatcher matcher = KeywordMatchers.compile(type, keywords);
+            TokenBloomFilter filter = TokenBloomFilter.build(matcher);
+
+            for (int i = 0; i < 30; i++) {
+                String text = randomText(random, random.nextInt(40));
+                boolean[] matched = {false};
+                matcher.scan(text, (start, end, keywordIndex) -> matched[0] = true);
+                if (matched[0]) {
+                    assertTrue(filter.mightMatch(text), keywords + " in '" + text + "'");
+                }
+            }
+        }
+    }
+
+    @Test
+    void mightMatch_ShouldRuleOutIdentifiersThatAreNotKeywords() {
+        TokenBloomFilter filter = TokenBloomFilter.build(KeywordMatchers.compile(MatcherType.COMPACT,
+                List.of("SELECT", "FROM", "SELECT * FROM", "CURRENT_USER", "--")));
+
+        assertFalse(filter.mightMatch("customerId"));
+        assertFalse(filter.mightMatch("order_total selected"));
+        assertFalse(filter.mightMatch("a.b, c"));
+        assertTrue(filter.mightMatch("Select"));
+        assertTrue(filter.mightMatch("x current_user"));
+        assertTrue(filter.mightMatch("a--b"));
+    }
+
+    @ParameterizedTest
+    @EnumSource(MatcherType.class)
+    void mightMatch_ShouldNeverRuleOutTextWithAPatternMatch(MatcherType type) {
+        String[] patternPieces = {"a", "b", "k", "_", "?", "[ab]", "*", " ", "-"};
+        Random random = new Random(31);
+        for (int round = 0; round < 300; round++) {
+            List<String> keywords = new ArrayList<>();
+            for (int k = 0; k < 1 + random.nextInt(6); k++) {
+                StringBuilder pattern = new StringBuilder();
+                for (int p = 0; p < 1 + random.nextInt(5); p++) {
+                    pattern.append(patternPieces[random.nextInt(patternPieces.length)]);
+                }
+                keywords.add(pattern.toString());
+            }
+            KeywordMatcher matcher = KeywordMatchers.compile(type, keywords);
+            TokenBloomFilter filter = TokenBloomFilter.build(matcher);
+
+            for (int i = 0; i < 30; i++) {
+                String text = randomText(random, random.nextInt(40));
+                boolean[] matched = {false};
+                matcher.scan(text, (start, end, keywordIndex) -> matched[0] = true);
+                if (matched[0]) {
+                    assertTrue(filter.mightMatch(text), keywords + " in '" + text + "'");
+                }
+            }
+        }
+    }
+
+    @Test
+    void mightMatch_ShouldCheckTokenPrefixesBeforeAWildcard() {
+        TokenBloomFilter filter = TokenBloomFilter.build(KeywordMatchers.compile(MatcherType.COMPACT,
+                List.of("SYSTBL*", "SELECT", "SYSV?W")));
+
+        assertTrue(filter.mightMatch("from systbldef"));
+        assertTrue(filter.mightMatch("SYSTBL"));
+        assertTrue(filter.mightMatch("sysviw"));
+        assertFalse(filter.mightMatch("systb customerId"));
+        assertFalse(filter.mightMatch("system"));
+    }
+
+    @Test
+    void mightMatch_ShouldPassEverythingWhenAPatternStartsWithAWildcard() {
+        TokenBloomFilter filter = TokenBloomFilter.build(KeywordMatchers.compile(MatcherType.COMPACT,
+                List.of("SELECT", "?ID")));
+
+        assertTrue(filter.mightMatch("customer"));
+    }
+
+    @Test
+    void mightMatch_ShouldKeepFalsePositivesRare() {
+        Random random = new Random(5);
+        Set<String> keywords = new HashSet<>();
+        while (keywords.size() < 20_000) {
+            keywords.add(randomWord(random));
+        }
+        TokenBloomFilter filter = TokenBloomFilter.build(
+                KeywordMatchers.compile(MatcherType.COMPACT, new ArrayList<>(keywords)));
+
+        int falsePositives = 0;
+        int probes = 0;
+        while (probes < 20_000) {
+            String token = randomWord(random);
+            if (!keywords.contains(token)) {
+                probes++;
+                falsePositives += filter.mightMatch(token) ? 1 : 0;
+            }
+        }
+        assertTrue(falsePositives < probes / 50, falsePositives + " false positives in " + probes);
+    }
+
+    private static String randomWord(Random random) {
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i < 5 + random.nextInt(8); i++) {
+            word.append((char) ('A' + random.nextInt(26)));
+        }
+        return word.toString();
+    }
+
+    private static String randomText(Random random, int length) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            text.append(PIECES[random.nextInt(PIECES.length)]);
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.keywords.resilience;
+
+import com.example.keywords.exception.ServiceUnavailableException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CircuitBreakerTest {
+
+    private final MutableClock clock = new MutableClock();
+    private final CircuitBreaker breaker = new CircuitBreaker("test", 2, Duration.ofSeconds(30), clock);
+    private final AtomicInteger calls = new AtomicInteger();
+
+    private final Supplier<String> failing = () -> {
+        calls.incrementAndGet();
+        throw new IllegalStateException("database down");
+    };
+    private final Supplier<String> succeeding = () -> {
+        calls.incrementAndGet();
+        return "ok";
+    };
+
+    @Test
+    void call_ShouldOpenAfterConsecutiveFailuresAndStopCallingThrough() {
+        assertThrows(IllegalStateException.class, () -> breaker.call(failing));
+        assertThrows(IllegalStateException.class, () -> breaker.call(failing));
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertThrows(ServiceUnavailableException.class, () -> breaker.call(succeeding));
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void call_ShouldCloseAfterSuccessfulTrialOnceOpenDurationHasPassed() {
+        assertThrows(IllegalStateException.class, () -> breaker.call(failing));
+        assertThrows(IllegalStateException.class, () -> breaker.call(failing));
+
+        clock.advance(Duration.ofSeconds(30));
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertEquals("ok", breaker.call(succeeding));
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void call_ShouldReopenWhenTrialFails() {
+        assertThrows(IllegalStateException.class, () -> breaker.call(failing));
+        assertThrows(IllegalStateException.class, () -> breaker.call(failing));
+
+        clock.advance(Duration.ofSeconds(31));
+        assertThrows(IllegalStateException.class, () -> breaker.call(failing));
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertThrows(ServiceUnavailableException.class, () -> breaker.call(succeeding));
+    }
+
+    @Test
+    void call_ShouldAllowANewTrialAfterATrialThrowsAnError() {
+        assertThrows(IllegalStateException.class, () -> breaker.call(failing));
+        assertThrows(IllegalStateException.class, () -> breaker.call(failing));
+
+        clock.advance(Duration.ofSeconds(30));
+        assertThrows(StackOverflowError.class, () -> breaker.call(() -> {
+            throw new StackOverflowError();
+        }));
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+        clock.advance(Duration.ofSeconds(30));
+        assertEquals("ok", breaker.call(succeeding));
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void call_ShouldResetFailureCountOnSuccess() {
+        assertThrows(IllegalStateException.class, () -> breaker.call(failing));
+        breaker.call(succeeding);
+        assertThrows(IllegalStateException.class, () -> breaker.call(failing));
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now = Instant.parse("2024-01-15T10:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneId.of("UTC");
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.keywords.service;
+
+import com.example.keywords.config.HibernateCacheConfig;
+import com.example.keywords.config.KeywordProperties;
+import com.example.keywords.dto.KeywordDTO;
+import com.example.keywords.event.KeywordsChangedEvent;
+import com.example.keywords.matcher.KeywordExport;
+import com.example.keywords.services.KeywordResponseCache;
+import com.example.keywords.services.KeywordResponseCacheImpl;
+import com.example.keywords.services.KeywordService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.cache.CacheManager;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class KeywordResponseCacheTest {
+
+    @Mock
+    private KeywordService keywordService;
+
+    private final KeywordProperties properties = new KeywordProperties();
+    private CacheManager cacheManager;
+    private KeywordResponseCacheImpl cache;
+
+    @BeforeEach
+    void setUp() {
+        properties.getCache().getKeywordResponse().setHeapEntries(2);
+        HibernateCacheConfig config = new HibernateCacheConfig();
+        cacheManager = config.hibernateCacheManager(properties);
+        cache = new KeywordResponseCacheImpl(keywordService, new ObjectMapper(), properties,
+                config.keywordResponseCache(cacheManager));
+    }
+
+    @AfterEach
+    void tearDown() {
+        cacheManager.close();
+    }
+
+    @Test
+    void getKeywordList_ShouldSerializeOncePerKeywordSetVersion() {
+        when(keywordService.getKeywordSetVersion()).thenReturn(1L, 1L, 2L);
+        when(keywordService.getAllKeywords()).thenReturn(
+                List.of(new KeywordDTO(1L, "SELECT", 0L)),
+                List.of(new KeywordDTO(1L, "SELECT", 0L), new KeywordDTO(2L, "FROM", 0L)));
+
+        KeywordResponseCache.Body first = cache.getKeywordList();
+        assertSame(first, cache.getKeywordList());
+        KeywordResponseCache.Body changed = cache.getKeywordList();
+
+        assertEquals("[{\"id\":1,\"word\":\"SELECT\"}]", new String(first.bytes(), StandardCharsets.UTF_8));
+        assertNull(first.gzip());
+        assertEquals(2L, changed.version());
+        assertEquals("[{\"id\":1,\"word\":\"SELECT\"},{\"id\":2,\"word\":\"FROM\"}]",
+                new String(changed.bytes(), StandardCharsets.UTF_8));
+        verify(keywordService, times(2)).getAllKeywords();
+    }
+
+    @Test
+    void getExport_ShouldCarryTheDatabaseVersionItWasWrittenAt() throws IOException {
+        when(keywordService.getKeywordSetVersion()).thenReturn(5L, 5L, 6L);
+        when(keywordService.getAllKeywordWords()).thenReturn(List.of("SELECT"), List.of("SELECT", "FROM"));
+
+        KeywordResponseCache.Body first = cache.getExport(false);
+        assertSame(first, cache.getExport(false));
+        KeywordResponseCache.Body changed = cache.getExport(false);
+
+        assertEquals(5L, KeywordExport.read(first.bytes()).getKeywordSetVersion());
+        assertEquals(6L, changed.version());
+        assertEquals(List.of("FROM", "SELECT"), KeywordExport.read(changed.bytes()).getKeywords());
+    }
+
+    @Test
+    void getKeyword_ShouldReuseTheBodyUntilTheKeywordVersionChanges() {
+        when(keywordService.getKeywordById(1L)).thenReturn(
+                new KeywordDTO(1L, "SELECT", 0L),
+                new KeywordDTO(1L, "SELECT", 0L),
+                new KeywordDTO(1L, "SELECTED", 1L));
+
+        KeywordResponseCache.Body first = cache.getKeyword(1L);
+        assertSame(first, cache.getKeyword(1L));
+        KeywordResponseCache.Body renamed = cache.getKeyword(1L);
+
+        assertEquals("{\"id\":1,\"word\":\"SELECT\"}", new String(first.bytes(), StandardCharsets.UTF_8));
+        assertEquals(1L, renamed.version());
+        assertEquals("{\"id\":1,\"word\":\"SELECTED\"}", new String(renamed.bytes(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void getKeyword_ShouldEvictTheLeastRecentlyUsedBodyBeyondTheBound() throws InterruptedException {
+        for (long id = 1; id <= 3; id++) {
+            when(keywordService.getKeywordById(id)).thenReturn(new KeywordDTO(id, "WORD", 0L));
+        }
+
+        // Access times are kept in milliseconds, so each step gets one of its own
+        KeywordResponseCache.Body first = cache.getKeyword(1L);
+        Thread.sleep(5);
+        KeywordResponseCache.Body second = cache.getKeyword(2L);
+        Thread.sleep(5);
+        assertSame(first, cache.getKeyword(1L));
+        Thread.sleep(5);
+        cache.getKeyword(3L);
+
+        assertSame(first, cache.getKeyword(1L));
+        assertNotSame(second, cache.getKeyword(2L));
+    }
+
+    @Test
+    void onKeywordsChanged_ShouldDropTheChangedKeyword() {
+        when(keywordService.getKeywordById(1L)).thenReturn(new KeywordDTO(1L, "SELECT", 0L));
+
+        KeywordResponseCache.Body first = cache.getKeyword(1L);
+        cache.onKeywordsChanged(new KeywordsChangedEvent(1L));
+
+        assertNotSame(first, cache.getKeyword(1L));
+    }
+}
@@ -1,17 +1,29 @@
 package com.example.keywords.service;
 
+import com.example.keywords.config.KeywordProperties;
 import com.example.keywords.dto.KeywordDTO;
+import com.example.keywords.exception.DuplicateResourceException;
+import com.example.keywords.exception.PreconditionFailedException;
+import com.example.keywords.exception.ValidationException;
+import com.example.keywords.matcher.KeywordMatchers;
+import com.example.keywords.matcher.KeywordSnapshot;
+import com.example.keywords.matcher.MatcherType;
 import com.example.keywords.model.Keyword;
 import com.example.keywords.repository.KeywordRepository;
 import com.example.keywords.services.KeywordService;
 import com.example.keywords.services.KeywordServiceImpl;
+import com.example.keywords.services.KeywordSnapshotService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -26,6 +38,18 @@ class KeywordServiceTest {
     @Mock
     private KeywordRepository keywordRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private KeywordProperties keywordProperties = new KeywordProperties();
+
+    @Mock
+    private ObjectProvider<KeywordSnapshotService> keywordSnapshotServiceProvider;
+
+    @Mock
+    private KeywordSnapshotService keywordSnapshotService;
+
     @InjectMocks
     private KeywordServiceImpl keywordService;
 
@@ -44,13 +68,102 @@ class KeywordServiceTest {
 
     @Test
     void createKeyword_ShouldReturnKeywordDTO() {
-        when(keywordRepository.save(any(Keyword.class))).thenReturn(keyword);
+        when(keywordRepository.insertIfAbsent("SELECT")).thenReturn(Optional.of(1L));
 
         KeywordDTO result = keywordService.createKeyword(keywordDTO);
 
         assertNotNull(result);
+        assertEquals(1L, result.getId());
         assertEquals("SELECT", result.getWord());
-        verify(keywordRepository, times(1)).save(any(Keyword.class));
+        verify(keywordRepository, times(1)).insertIfAbsent("SELECT");
+    }
+
+    @Test
+    void createKeyword_ShouldThrowDuplicateWhenTheWordExists() {
+        when(keywordRepository.insertIfAbsent("SELECT")).thenReturn(Optional.empty());
+
+        assertThrows(DuplicateResourceException.class, () -> keywordService.createKeyword(keywordDTO));
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void createKeyword_ShouldStorePhraseWithSingleSpaces() {
+        keywordDTO.setWord("select \t*\n  from");
+        when(keywordRepository.insertIfAbsent("SELECT * FROM")).thenReturn(Optional.of(2L));
+
+        KeywordDTO result = keywordService.createKeyword(keywordDTO);
+
+        assertEquals("SELECT * FROM", result.getWord());
+    }
+
+    @Test
+    void createKeyword_ShouldFoldCaseCharByCharLikeTheMatcher() {
+        keywordDTO.setWord("straße");
+        when(keywordRepository.insertIfAbsent("STRAßE")).thenReturn(Optional.of(4L));
+
+        assertEquals("STRAßE", keywordService.createKeyword(keywordDTO).getWord());
+    }
+
+    @Test
+    void createKeyword_ShouldRejectMalformedPattern() {
+        keywordDTO.setWord("SYS[TB");
+
+        assertThrows(ValidationException.class, () -> keywordService.createKeyword(keywordDTO));
+        verify(keywordRepository, never()).insertIfAbsent(any());
+    }
+
+    @Test
+    void createKeyword_ShouldRejectAPatternTheKeywordSetCannotCompileWith() {
+        keywordProperties.getMatcher().setMaxPatternStates(1000);
+        when(keywordRepository.findAllWords()).thenReturn(shiftedPatterns(7));
+        keywordDTO.setWord(shiftedPattern(7));
+
+        ValidationException e = assertThrows(ValidationException.class, () -> keywordService.createKeyword(keywordDTO));
+        assertTrue(e.getMessage().contains("1000 automaton states"), e.getMessage());
+        verify(keywordRepository, never()).insertIfAbsent(any());
+
+        keywordDTO.setWord("SELECT");
+        when(keywordRepository.insertIfAbsent("SELECT")).thenReturn(Optional.of(2L));
+        assertEquals(2L, keywordService.createKeyword(keywordDTO).getId());
+    }
+
+    @Test
+    void updateKeyword_ShouldCheckTheSetWithoutTheKeywordsOldWord() {
+        keywordProperties.getMatcher().setMaxPatternStates(1000);
+        List<String> existing = shiftedPatterns(7);
+        existing.add("SELECT");
+        when(keywordRepository.findAllWords()).thenReturn(existing);
+        when(keywordRepository.findById(1L)).thenReturn(Optional.of(keyword));
+        keywordDTO.setWord(shiftedPattern(7));
+
+        assertThrows(ValidationException.class, () -> keywordService.updateKeyword(1L, keywordDTO));
+
+        // Replacing one of the patterns instead keeps the count of shifted patterns at seven
+        keyword.setWord(shiftedPattern(6));
+        when(keywordRepository.saveAndFlush(keyword)).thenReturn(keyword);
+        keywordService.updateKeyword(1L, keywordDTO);
+        verify(keywordRepository, times(1)).saveAndFlush(any());
+    }
+
+    @Test
+    void createKeyword_ShouldNotReadTheTableForALiteralWhileTheSnapshotHasNoPatterns() {
+        useSnapshotOf(List.of("SELECT", "FROM"));
+        keywordDTO.setWord("WHERE");
+        when(keywordRepository.insertIfAbsent("WHERE")).thenReturn(Optional.of(3L));
+
+        assertEquals(3L, keywordService.createKeyword(keywordDTO).getId());
+        verify(keywordRepository, never()).findAllWords();
+    }
+
+    @Test
+    void createKeyword_ShouldCheckAPatternAgainstTheSnapshotWords() {
+        keywordProperties.getMatcher().setMaxPatternStates(1000);
+        useSnapshotOf(shiftedPatterns(7));
+        keywordDTO.setWord(shiftedPattern(7));
+
+        assertThrows(ValidationException.class, () -> keywordService.createKeyword(keywordDTO));
+        verify(keywordRepository, never()).findAllWords();
+        verify(keywordRepository, never()).insertIfAbsent(any());
     }
 
     @Test
@@ -66,12 +179,43 @@ class KeywordServiceTest {
 
     @Test
     void getAllKeywords_ShouldReturnList() {
-        List<Keyword> keywords = Arrays.asList(keyword);
-        when(keywordRepository.findAll()).thenReturn(keywords);
+        when(keywordRepository.findAllDtos()).thenReturn(Arrays.asList(new KeywordDTO(1L, "SELECT", 0L)));
 
         List<KeywordDTO> result = keywordService.getAllKeywords();
 
         assertEquals(1, result.size());
         assertEquals("SELECT", result.get(0).getWord());
     }
+
+    @Test
+    void updateKeyword_ShouldRejectAStaleExpectedVersion() {
+        keyword.setVersion(3L);
+        when(keywordRepository.findById(1L)).thenReturn(Optional.of(keyword));
+
+        assertThrows(PreconditionFailedException.class, () -> keywordService.updateKeyword(1L, keywordDTO, 2L));
+        verify(keywordRepository, never()).saveAndFlush(any());
+    }
+
+    private void useSnapshotOf(List<String> words) {
+        KeywordSnapshot snapshot = KeywordSnapshot.builder()
+                .version(1L)
+                .matcher(KeywordMatchers.compile(MatcherType.COMPACT, words))
+                .words(words)
+                .build();
+        when(keywordSnapshotServiceProvider.getIfAvailable()).thenReturn(keywordSnapshotService);
+        when(keywordSnapshotService.findSnapshot()).thenReturn(Optional.of(snapshot));
+    }
+
+    // Each pattern shifted by one more char roughly doubles the automaton states of the ones before it
+    private static String shiftedPattern(int shift) {
+        return "?".repeat(shift) + "A" + "?".repeat(10 - shift);
+    }
+
+    private static List<String> shiftedPatterns(int count) {
+        List<String> patterns = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            patterns.add(shiftedPattern(i));
+        }
+        return patterns;
+    }
 }
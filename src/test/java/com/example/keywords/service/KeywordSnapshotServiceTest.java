@@ -0,0 +1,210 @@
+package com.example.keywords.service;
+
+import com.example.keywords.config.KeywordProperties;
+import com.example.keywords.event.KeywordsChangedEvent;
+import com.example.keywords.exception.ServiceUnavailableException;
+import com.example.keywords.matcher.CompactKeywordMatcher;
+import com.example.keywords.matcher.KeywordSnapshot;
+import com.example.keywords.matcher.MatcherImage;
+import com.example.keywords.resilience.CircuitBreaker;
+import com.example.keywords.services.KeywordService;
+import com.example.keywords.services.KeywordSnapshotServiceImpl;
+import com.example.keywords.services.StringMaskServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class KeywordSnapshotServiceTest {
+
+    @Mock
+    private KeywordService keywordService;
+
+    @TempDir
+    Path tempDir;
+
+    private final KeywordProperties properties = new KeywordProperties();
+
+    @BeforeEach
+    void setUp() {
+        properties.getSnapshot().setRefreshInterval(Duration.ZERO);
+        properties.getSnapshot().setFailureThreshold(2);
+    }
+
+    @Test
+    void getSnapshot_ShouldNotLoadFromDatabase() {
+        KeywordSnapshotServiceImpl service = new KeywordSnapshotServiceImpl(keywordService, properties);
+
+        assertThrows(ServiceUnavailableException.class, service::getSnapshot);
+        verify(keywordService, times(0)).getAllKeywordWords();
+    }
+
+    @Test
+    void masking_ShouldKeepUsingLastSnapshotWhenDatabaseFails() {
+        when(keywordService.getKeywordSetVersion()).thenReturn(1L)
+                .thenThrow(new DataAccessResourceFailureException("connection refused"));
+        when(keywordService.getAllKeywordWords()).thenReturn(List.of("SELECT", "FROM"));
+        KeywordSnapshotServiceImpl service = new KeywordSnapshotServiceImpl(keywordService, properties);
+        StringMaskServiceImpl maskService = new StringMaskServiceImpl(service);
+
+        service.refresh();
+        service.loadOnStartup();
+        service.loadOnStartup();
+        service.loadOnStartup();
+
+        assertTrue(service.isDegraded());
+        assertEquals(CircuitBreaker.State.OPEN, service.getCircuitState());
+        assertEquals(1L, service.getSnapshot().getVersion());
+        assertEquals("****** * **** users", maskService.maskSensitiveWords("SELECT * FROM users"));
+        // The open circuit stops the third attempt from reaching the database
+        verify(keywordService, times(3)).getKeywordSetVersion();
+    }
+
+    @Test
+    void loadOnStartup_ShouldServeLastKnownGoodImageWhenDatabaseIsDown() throws IOException {
+        Path image = tempDir.resolve("matcher.img");
+        MatcherImage.write(image, CompactKeywordMatcher.build(List.of("SELECT", "WHERE")), 7L);
+        properties.getImage().setEnabled(true);
+        properties.getImage().setPath(image);
+        when(keywordService.getKeywordSetVersion())
+                .thenThrow(new DataAccessResourceFailureException("connection refused"));
+        KeywordSnapshotServiceImpl service = new KeywordSnapshotServiceImpl(keywordService, properties);
+
+        service.loadOnStartup();
+
+        assertTrue(service.isDegraded());
+        assertEquals(7L, service.getSnapshot().getVersion());
+        assertEquals(2, service.getSnapshot().size());
+    }
+
+    @Test
+    void refresh_ShouldClearDegradedStateOnceDatabaseRecovers() {
+        when(keywordService.getKeywordSetVersion())
+                .thenThrow(new DataAccessResourceFailureException("connection refused"))
+                .thenReturn(3L);
+        when(keywordService.getAllKeywordWords()).thenReturn(List.of("SELECT"));
+        KeywordSnapshotServiceImpl service = new KeywordSnapshotServiceImpl(keywordService, properties);
+
+        service.loadOnStartup();
+        assertTrue(service.isDegraded());
+        assertTrue(service.findSnapshot().isEmpty());
+        assertEquals("connection refused", service.getLastRefreshError());
+
+        service.refresh();
+
+        assertFalse(service.isDegraded());
+        assertNull(service.getLastRefreshError());
+        assertNotNull(service.getLastSyncedAt());
+        assertEquals(3L, service.getSnapshot().getVersion());
+    }
+
+    @Test
+    void drainRetiredHits_ShouldKeepTheCountsOfSnapshotsReplacedTwiceBetweenFlushes() {
+        properties.getStatistics().setEnabled(true);
+        when(keywordService.getKeywordSetVersion()).thenReturn(1L, 2L, 3L);
+        when(keywordService.getAllKeywordWords()).thenReturn(List.of("FROM", "SELECT"));
+        when(keywordService.getAllKeywordIds()).thenReturn(List.of(10L, 20L));
+        KeywordSnapshotServiceImpl service = new KeywordSnapshotServiceImpl(keywordService, properties);
+
+        KeywordSnapshot first = service.refresh();
+        first.getHitCounters().increment(0);
+        KeywordSnapshot second = service.refresh();
+        second.getHitCounters().increment(1);
+        KeywordSnapshot third = service.refresh();
+        // A match that was still running on the replaced snapshot
+        second.getHitCounters().increment(1);
+        third.getHitCounters().increment(0);
+
+        assertEquals(Map.of(10L, 1L, 20L, 2L), service.drainRetiredHits());
+        assertEquals(Map.of(), service.drainRetiredHits());
+        Map<Long, Long> current = new HashMap<>();
+        third.drainHits(current);
+        assertEquals(Map.of(10L, 1L), current);
+    }
+
+    @Test
+    void onKeywordsChanged_ShouldRefreshOnlyOnceTheWriterCommits() {
+        when(keywordService.getKeywordSetVersion()).thenReturn(2L);
+        when(keywordService.getAllKeywordWords()).thenReturn(List.of("SELECT"));
+        KeywordSnapshotServiceImpl service = new KeywordSnapshotServiceImpl(keywordService, properties);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            service.onKeywordsChanged(new KeywordsChangedEvent(1L));
+            TransactionSynchronizationUtils.triggerAfterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+            verify(keywordService, after(200).never()).getKeywordSetVersion();
+
+            service.onKeywordsChanged(new KeywordsChangedEvent(1L));
+            verify(keywordService, never()).getKeywordSetVersion();
+            TransactionSynchronizationUtils.triggerAfterCommit();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        try {
+            await().atMost(Duration.ofSeconds(5)).until(() -> service.findSnapshot().isPresent());
+            assertEquals(2L, service.getSnapshot().getVersion());
+        } finally {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    void onKeywordsChanged_ShouldCoalesceChangesWhileARefreshIsQueued() throws InterruptedException {
+        CountDownLatch refreshing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(keywordService.getKeywordSetVersion()).thenAnswer(invocation -> {
+            refreshing.countDown();
+            release.await();
+            return 1L;
+        }).thenReturn(2L);
+        when(keywordService.getAllKeywordWords()).thenReturn(List.of("SELECT"));
+        KeywordSnapshotServiceImpl service = new KeywordSnapshotServiceImpl(keywordService, properties);
+
+        try {
+            service.onKeywordsChanged(new KeywordsChangedEvent(1L));
+            assertTrue(refreshing.await(5, TimeUnit.SECONDS));
+            // The first refresh is running, so these queue a single one behind it
+            for (long id = 2; id <= 6; id++) {
+                service.onKeywordsChanged(new KeywordsChangedEvent(id));
+            }
+            release.countDown();
+
+            await().atMost(Duration.ofSeconds(5)).until(() ->
+                    service.findSnapshot().map(KeywordSnapshot::getVersion).orElse(0L) == 2L);
+            verify(keywordService, after(200).times(2)).getKeywordSetVersion();
+        } finally {
+            release.countDown();
+            service.shutdown();
+        }
+    }
+}
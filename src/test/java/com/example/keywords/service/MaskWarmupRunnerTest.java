@@ -0,0 +1,117 @@
+package com.example.keywords.service;
+
+import com.example.keywords.config.KeywordProperties;
+import com.example.keywords.matcher.KeywordMatchers;
+import com.example.keywords.matcher.KeywordSnapshot;
+import com.example.keywords.matcher.MatcherType;
+import com.example.keywords.services.KeywordSnapshotService;
+import com.example.keywords.services.MaskWarmupRunner;
+import com.example.keywords.services.StringMaskService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MaskWarmupRunnerTest {
+
+    @Mock
+    private StringMaskService stringMaskService;
+
+    @Mock
+    private KeywordSnapshotService keywordSnapshotService;
+
+    private KeywordProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        properties = new KeywordProperties();
+        properties.getWarmup().setIterations(50);
+        properties.getWarmup().setInputSizes(List.of(64, 20_000));
+        meterRegistry = new SimpleMeterRegistry();
+        List<String> words = List.of("SELECT", "FROM", "WHERE");
+        lenient().when(keywordSnapshotService.getSnapshot()).thenReturn(KeywordSnapshot.builder()
+                .version(1L)
+                .matcher(KeywordMatchers.compile(MatcherType.COMPACT, words))
+                .builtAt(Instant.now())
+                .buildDuration(Duration.ZERO)
+                .words(words)
+                .build());
+    }
+
+    @Test
+    void run_ShouldSpreadGeneratedInputsOverEveryMaskPath() {
+        MaskWarmupRunner runner = new MaskWarmupRunner(stringMaskService, keywordSnapshotService, properties,
+                meterRegistry);
+
+        runner.run();
+
+        ArgumentCaptor<String> inputs = ArgumentCaptor.forClass(String.class);
+        verify(stringMaskService, times(13)).maskSensitiveWords(inputs.capture(), eq(false));
+        assertTrue(inputs.getAllValues().stream().allMatch(input -> input.length() <= 10_000));
+        assertTrue(inputs.getAllValues().stream().anyMatch(input -> input.toUpperCase().contains("SELECT")));
+        verify(stringMaskService, times(13)).maskSensitiveWords(any(byte[].class), eq(false));
+        verify(stringMaskService, times(12)).detectSensitiveWords(anyString(), eq(false));
+        verify(stringMaskService, times(12)).containsSensitiveWords(anyString());
+        assertEquals(50L, runner.getCompletedIterations());
+        assertEquals(50.0, meterRegistry.get("keywords.warmup.iterations").gauge().value());
+    }
+
+    @Test
+    void run_ShouldSpellKeywordsFromTheMatcherOfASnapshotMappedWithoutWords() {
+        when(keywordSnapshotService.getSnapshot()).thenReturn(new KeywordSnapshot(1L,
+                KeywordMatchers.compile(MatcherType.COMPACT, List.of("SELECT", "SYSTBL*")), Instant.now(),
+                Duration.ZERO));
+        MaskWarmupRunner runner = new MaskWarmupRunner(stringMaskService, keywordSnapshotService, properties,
+                meterRegistry);
+
+        runner.run();
+
+        ArgumentCaptor<byte[]> inputs = ArgumentCaptor.forClass(byte[].class);
+        verify(stringMaskService, times(13)).maskSensitiveWords(inputs.capture(), eq(false));
+        List<String> texts = inputs.getAllValues().stream()
+                .map(input -> new String(input, StandardCharsets.UTF_8).toUpperCase())
+                .toList();
+        assertTrue(texts.stream().anyMatch(text -> text.contains("SELECT")));
+        assertTrue(texts.stream().anyMatch(text -> text.contains("SYSTBL")));
+    }
+
+    @Test
+    void run_ShouldStopAtMaxDuration() {
+        properties.getWarmup().setMaxDuration(Duration.ZERO);
+        MaskWarmupRunner runner = new MaskWarmupRunner(stringMaskService, keywordSnapshotService, properties,
+                meterRegistry);
+
+        runner.run();
+
+        verify(stringMaskService, never()).maskSensitiveWords(anyString(), anyBoolean());
+        assertEquals(0L, runner.getCompletedIterations());
+    }
+
+    @Test
+    void warmUpBeforeReadiness_ShouldDoNothingWhenDisabled() {
+        MaskWarmupRunner runner = new MaskWarmupRunner(stringMaskService, keywordSnapshotService, properties,
+                meterRegistry);
+
+        runner.warmUpBeforeReadiness();
+
+        verifyNoInteractions(stringMaskService);
+    }
+}
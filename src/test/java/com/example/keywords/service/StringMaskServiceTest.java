@@ -1,19 +1,28 @@
 package com.example.keywords.service;
 
+import com.example.keywords.config.KeywordProperties;
+import com.example.keywords.dto.DetectResponseDTO;
+import com.example.keywords.exception.ValidationException;
 import com.example.keywords.services.KeywordService;
-import com.example.keywords.services.StringMaskService;
+import com.example.keywords.services.KeywordSnapshotServiceImpl;
 import com.example.keywords.services.StringMaskServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -22,13 +31,16 @@ class StringMaskServiceTest {
     @Mock
     private KeywordService keywordService;
 
-    @InjectMocks
     private StringMaskServiceImpl stringMaskService;
 
     @BeforeEach
     void setUp() {
         List<String> keywords = Arrays.asList("SELECT", "FROM", "WHERE", "INSERT");
         when(keywordService.getAllKeywordWords()).thenReturn(keywords);
+        KeywordSnapshotServiceImpl keywordSnapshotService =
+                new KeywordSnapshotServiceImpl(keywordService, new KeywordProperties());
+        keywordSnapshotService.refresh();
+        stringMaskService = new StringMaskServiceImpl(keywordSnapshotService);
     }
 
     @Test
@@ -41,6 +53,17 @@ class StringMaskServiceTest {
         assertEquals(expected, result);
     }
 
+    @Test
+    void maskSensitiveWords_ShouldRejectBlankInputOnBothPaths() {
+        ValidationException text = assertThrows(ValidationException.class,
+                () -> stringMaskService.maskSensitiveWords(" \t"));
+        ValidationException utf8 = assertThrows(ValidationException.class,
+                () -> stringMaskService.maskSensitiveWords(" \t".getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(text.getMessage(), utf8.getMessage());
+        assertThrows(ValidationException.class, () -> stringMaskService.maskSensitiveWords(new byte[0]));
+    }
+
     @Test
     void maskSensitiveWords_ShouldHandleCaseInsensitive() {
         String input = "select * from users where id = 1";
@@ -59,4 +82,68 @@ class StringMaskServiceTest {
 
         assertEquals(input, result);
     }
+
+    @Test
+    void maskSensitiveWords_ShouldMaskDisguisedKeywordsWhenFuzzyIsEnabled() {
+        KeywordProperties properties = new KeywordProperties();
+        properties.getFuzzy().setEnabled(true);
+        // A cold JVM can take longer than the default budget for the first scan
+        properties.getFuzzy().setBudget(Duration.ofSeconds(10));
+        KeywordSnapshotServiceImpl keywordSnapshotService = new KeywordSnapshotServiceImpl(keywordService, properties);
+        keywordSnapshotService.refresh();
+        StringMaskServiceImpl fuzzyMaskService = new StringMaskServiceImpl(keywordSnapshotService);
+
+        assertEquals("*********** * **** users ****** id = 1",
+                fuzzyMaskService.maskSensitiveWords("S.E.L.E.C.T * FR0M users wheere id = 1"));
+        assertEquals("****** from_date", fuzzyMaskService.maskSensitiveWords("$3lect from_date"));
+        assertEquals("****** ****",
+                new String(fuzzyMaskService.maskSensitiveWords("s3l3ct from".getBytes(StandardCharsets.UTF_8)),
+                        StandardCharsets.UTF_8));
+        assertEquals("S.E.L.E.C.T", stringMaskService.maskSensitiveWords("S.E.L.E.C.T"));
+    }
+
+    @Test
+    void detectSensitiveWords_ShouldAddFuzzyMatchesThatDoNotOverlapExactOnes() {
+        when(keywordService.getAllKeywordIds()).thenReturn(List.of(10L, 11L, 12L, 13L));
+        KeywordProperties properties = new KeywordProperties();
+        properties.getFuzzy().setEnabled(true);
+        properties.getFuzzy().setBudget(Duration.ofSeconds(10));
+        KeywordSnapshotServiceImpl keywordSnapshotService = new KeywordSnapshotServiceImpl(keywordService, properties);
+        keywordSnapshotService.refresh();
+        StringMaskServiceImpl fuzzyMaskService = new StringMaskServiceImpl(keywordSnapshotService);
+
+        DetectResponseDTO report = fuzzyMaskService.detectSensitiveWords("select x fr0m y where s.e.l.e.c.t");
+
+        assertEquals(List.of(new DetectResponseDTO.Match(0, 6, 10L), new DetectResponseDTO.Match(9, 13, 11L),
+                new DetectResponseDTO.Match(16, 21, 12L), new DetectResponseDTO.Match(22, 33, 10L)), report.getMatches());
+        assertEquals(Map.of(10L, 2, 11L, 1, 12L, 1), report.getKeywordCounts());
+        assertTrue(fuzzyMaskService.containsSensitiveWords("fr0m"));
+        assertFalse(stringMaskService.containsSensitiveWords("fr0m"));
+    }
+
+    @Test
+    void maskSensitiveWords_ShouldReturnSameInstanceWhenNoTokenCanMatch() {
+        String input = "customer_id selection";
+
+        assertSame(input, stringMaskService.maskSensitiveWords(input));
+    }
+
+    @Test
+    void maskSensitiveWordsUtf8_ShouldMaskInPlace() {
+        byte[] input = "select * from users".getBytes(StandardCharsets.UTF_8);
+
+        byte[] result = stringMaskService.maskSensitiveWords(input);
+
+        assertSame(input, result);
+        assertEquals("****** * **** users", new String(result, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void maskSensitiveWordsUtf8_ShouldMatchStringPathForNonAsciiText() {
+        String input = "naïve SELECT — FROM «users» WHERE ünïcode";
+
+        byte[] result = stringMaskService.maskSensitiveWords(input.getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(stringMaskService.maskSensitiveWords(input), new String(result, StandardCharsets.UTF_8));
+    }
 }
@@ -0,0 +1,3 @@
+-- Run by Hibernate after it creates the test schema; mirrors the V4 migration
+INSERT INTO keyword_set_version (id, version) VALUES (1, 1);
+CREATE TRIGGER keywords_set_version AFTER INSERT, UPDATE, DELETE ON keywords FOR EACH STATEMENT CALL 'com.example.keywords.KeywordSetVersionTrigger';